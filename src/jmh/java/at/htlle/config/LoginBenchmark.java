@@ -0,0 +1,59 @@
+package at.htlle.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Single-threaded throughput, i.e. successful logins per second on one core.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "secret123";
+
+    @Param({"bcrypt:10", "bcrypt:12", "bcrypt:8", "pbkdf2:310000", "pbkdf2:100000"})
+    public String encoder;
+
+    private DaoAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        String[] parts = encoder.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        boolean bcrypt = "bcrypt".equals(parts[0]);
+        PasswordEncoder passwordEncoder = SecurityConfig.buildPasswordEncoder(
+                parts[0], bcrypt ? cost : 10, bcrypt ? 310000 : cost);
+        UserDetails user = new User("bench", passwordEncoder.encode(PASSWORD),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        provider = new DaoAuthenticationProvider(username -> User.withUserDetails(user).build());
+        provider.setPasswordEncoder(passwordEncoder);
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("bench", PASSWORD));
+    }
+}
@@ -0,0 +1,79 @@
+package at.htlle.service;
+
+import at.htlle.BonusAppState;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.LoyaltyAccountRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AccountContentionBenchmark {
+
+    @Param({"pessimistic", "optimistic"})
+    private String lockMode;
+
+    private final AtomicLong purchaseCounter = new AtomicLong();
+    private final String purchasePrefix = "CONT-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private ConfigurableApplicationContext context;
+    private LoyaltyService loyaltyService;
+    private Long accountId;
+    private Long restaurantId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BonusAppState.boot(
+                "bonus.account-lock.mode=" + lockMode,
+                "bonus.account-lock.max-attempts=100");
+        loyaltyService = context.getBean(LoyaltyService.class);
+        LoyaltyAccount account = context.getBean(LoyaltyAccountRepository.class)
+                .findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        accountId = account.getId();
+        restaurantId = account.getRestaurant().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PointLedger concurrentPurchasesOnOneAccount() {
+        return loyaltyService.recordPurchase(new PurchaseRequest(
+                accountId,
+                restaurantId,
+                purchasePrefix + purchaseCounter.incrementAndGet(),
+                new BigDecimal("12.50"),
+                "EUR",
+                Instant.now(),
+                null,
+                "Contention benchmark",
+                null));
+    }
+}
@@ -0,0 +1,61 @@
+package at.htlle.service;
+
+import at.htlle.dto.AccountResponse;
+import at.htlle.entity.Customer;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.Restaurant;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountQueryServiceBenchmark {
+
+    private final AccountSummaryCache accountSummaryCache = new AccountSummaryCache(Duration.ofMinutes(5), 1000);
+    private final AccountQueryService accountQueryService = new AccountQueryService(null, null, accountSummaryCache);
+    private LoyaltyAccount account;
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer();
+        ReflectionTestUtils.setField(customer, "id", 1L);
+        customer.setFirstName("Max");
+        customer.setLastName("Muster");
+
+        Restaurant restaurant = new Restaurant();
+        ReflectionTestUtils.setField(restaurant, "id", 1L);
+
+        account = new LoyaltyAccount();
+        ReflectionTestUtils.setField(account, "id", 1L);
+        account.setAccountNumber("ACCT-0001");
+        account.setCustomer(customer);
+        account.setRestaurant(restaurant);
+        account.setCurrentPoints(1234L);
+        accountSummaryCache.get(1L, id -> accountQueryService.buildAccountResponse(account, false));
+    }
+
+    @Benchmark
+    public AccountResponse buildAccountResponse() {
+        return accountQueryService.buildAccountResponse(account, false);
+    }
+
+    @Benchmark
+    public AccountResponse cachedAccountResponse() {
+        return accountQueryService.getAccountResponse(1L, false);
+    }
+}
@@ -0,0 +1,92 @@
+package at.htlle.service;
+
+import at.htlle.BonusAppState;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.dto.RedemptionRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.entity.Redemption;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RewardRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoyaltyServiceBenchmark {
+
+    private final AtomicLong purchaseCounter = new AtomicLong();
+    private final String purchasePrefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private LoyaltyService loyaltyService;
+    private RedemptionCodeGenerator redemptionCodeGenerator;
+    private Long accountId;
+    private Long restaurantId;
+    private Long rewardId;
+
+    @Setup(Level.Trial)
+    public void setUp(BonusAppState app) {
+        loyaltyService = app.bean(LoyaltyService.class);
+        redemptionCodeGenerator = app.bean(RedemptionCodeGenerator.class);
+        LoyaltyAccount account = app.bean(LoyaltyAccountRepository.class)
+                .findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        accountId = account.getId();
+        restaurantId = account.getRestaurant().getId();
+        rewardId = app.bean(RewardRepository.class).findAll().stream()
+                .filter(reward -> reward.isActive() && reward.getRestaurant().getId().equals(restaurantId))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void topUpBalance() {
+        loyaltyService.recordPurchase(purchase(new BigDecimal("1000000.00")));
+    }
+
+    @Benchmark
+    public String generateRedemptionCode() {
+        return redemptionCodeGenerator.nextCode();
+    }
+
+    @Benchmark
+    public PointLedger recordPurchase() {
+        return loyaltyService.recordPurchase(purchase(new BigDecimal("23.40")));
+    }
+
+    @Benchmark
+    public Redemption redeemReward() {
+        return loyaltyService.redeemReward(new RedemptionRequest(accountId, rewardId, restaurantId, "Benchmark"));
+    }
+
+    private PurchaseRequest purchase(BigDecimal amount) {
+        return new PurchaseRequest(
+                accountId,
+                restaurantId,
+                purchasePrefix + purchaseCounter.incrementAndGet(),
+                amount,
+                "EUR",
+                Instant.now(),
+                null,
+                "Benchmark purchase",
+                null);
+    }
+}
@@ -0,0 +1,62 @@
+package at.htlle.service;
+
+import at.htlle.entity.PointRule;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointCalculatorBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    private final PointCalculator pointCalculator = new PointCalculator();
+    private final BigDecimal[] amounts = new BigDecimal[AMOUNTS];
+    private PointRule rule;
+    private CompiledPointRule compiledRule;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rule = new PointRule();
+        rule.setRuleType(PointRule.RuleType.MULTIPLIER);
+        rule.setMultiplier(new BigDecimal("1.50"));
+        rule.setAmountThreshold(new BigDecimal("1.00"));
+        compiledRule = CompiledPointRule.of(rule);
+
+        Random random = new Random(42);
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(100 + random.nextInt(50_000), 2);
+        }
+    }
+
+    @Benchmark
+    public long decimalArithmetic() {
+        return pointCalculator.calculatePoints(nextAmount(), rule);
+    }
+
+    @Benchmark
+    public long compiledLongArithmetic() {
+        return pointCalculator.calculatePoints(nextAmount(), compiledRule);
+    }
+
+    private BigDecimal nextAmount() {
+        next = (next + 1) & (AMOUNTS - 1);
+        return amounts[next];
+    }
+}
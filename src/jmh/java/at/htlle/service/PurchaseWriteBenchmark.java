@@ -0,0 +1,117 @@
+package at.htlle.service;
+
+import at.htlle.BonusAppState;
+import at.htlle.dto.PurchaseBatchResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.LoyaltyAccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurchaseWriteBenchmark {
+
+    private static final int PURCHASES_PER_CALL = 20;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private final AtomicLong purchaseCounter = new AtomicLong();
+    private final String purchasePrefix = "WRITE-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private ConfigurableApplicationContext context;
+    private LoyaltyService loyaltyService;
+    private PurchaseBatchService purchaseBatchService;
+    private Statistics statistics;
+    private Long accountId;
+    private Long restaurantId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        // Last call only: every call writes the same rows, so the count does not vary between calls.
+        public long preparedStatements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BonusAppState.boot(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                "spring.jpa.properties.hibernate.generate_statistics=true");
+        loyaltyService = context.getBean(LoyaltyService.class);
+        purchaseBatchService = context.getBean(PurchaseBatchService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        LoyaltyAccount account = context.getBean(LoyaltyAccountRepository.class)
+                .findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        accountId = account.getId();
+        restaurantId = account.getRestaurant().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PointLedger recordPurchase(RoundTrips roundTrips) {
+        long before = statistics.getPrepareStatementCount();
+        PointLedger ledger = loyaltyService.recordPurchase(purchase());
+        roundTrips.preparedStatements = statistics.getPrepareStatementCount() - before;
+        return ledger;
+    }
+
+    @Benchmark
+    public PurchaseBatchResponse recordPurchaseBatch(RoundTrips roundTrips) {
+        List<PurchaseRequest> purchases = new ArrayList<>(PURCHASES_PER_CALL);
+        for (int i = 0; i < PURCHASES_PER_CALL; i++) {
+            purchases.add(purchase());
+        }
+        long before = statistics.getPrepareStatementCount();
+        PurchaseBatchResponse response = purchaseBatchService.recordPurchases(purchases);
+        roundTrips.preparedStatements = statistics.getPrepareStatementCount() - before;
+        return response;
+    }
+
+    private PurchaseRequest purchase() {
+        return new PurchaseRequest(
+                accountId,
+                restaurantId,
+                purchasePrefix + purchaseCounter.incrementAndGet(),
+                new BigDecimal("12.50"),
+                "EUR",
+                Instant.now(),
+                null,
+                "Write benchmark",
+                null);
+    }
+}
@@ -0,0 +1,58 @@
+package at.htlle.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+// Asks for a rehash whenever a stored hash was made with another cost than configured, in either direction.
+// BCrypt carries its cost in the hash; PBKDF2 hashes are stored as {pbkdf2-<iterations>} for the same reason.
+final class CostAwarePasswordEncoder implements PasswordEncoder {
+
+    static final String PBKDF2_ID_PREFIX = "pbkdf2-";
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\{bcrypt}\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final Pattern PBKDF2_ITERATIONS = Pattern.compile("^\\{" + PBKDF2_ID_PREFIX + "(\\d{1,9})}");
+
+    private final PasswordEncoder delegate;
+    private final int bcryptStrength;
+    private final Map<Integer, PasswordEncoder> pbkdf2Encoders = new ConcurrentHashMap<>();
+
+    CostAwarePasswordEncoder(PasswordEncoder delegate, int bcryptStrength) {
+        this.delegate = delegate;
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Matcher pbkdf2 = encodedPassword == null ? null : PBKDF2_ITERATIONS.matcher(encodedPassword);
+        if (pbkdf2 != null && pbkdf2.find()) {
+            // Hashes made before the iteration count was changed must still verify with their own count.
+            PasswordEncoder encoder = pbkdf2Encoders.computeIfAbsent(
+                    Integer.parseInt(pbkdf2.group(1)), CostAwarePasswordEncoder::pbkdf2);
+            return encoder.matches(rawPassword, encodedPassword.substring(pbkdf2.end()));
+        }
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (delegate.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+        Matcher bcrypt = BCRYPT_COST.matcher(encodedPassword);
+        return bcrypt.find() && Integer.parseInt(bcrypt.group(1)) != bcryptStrength;
+    }
+}
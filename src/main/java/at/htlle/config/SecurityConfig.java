@@ -1,25 +1,33 @@
 package at.htlle.config;
 
 import at.htlle.service.AuthService;
+import at.htlle.service.CustomerUserCache;
+import at.htlle.service.CustomerUserDetailsService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 @Configuration
@@ -30,12 +38,19 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             AuthenticationSuccessHandler authenticationSuccessHandler,
-            Environment environment
+            Environment environment,
+            CustomerUserDetailsService userDetailsService,
+            CustomerUserCache customerUserCache,
+            PasswordEncoder passwordEncoder
     ) throws Exception {
 
         boolean devProfileActive = environment.acceptsProfiles(Profiles.of("dev"));
 
         http
+            // Eigener AuthenticationManager ohne globalen Parent: ein falsches Passwort wird nur einmal geprueft
+            .authenticationManager(new ProviderManager(
+                authenticationProvider(userDetailsService, customerUserCache, passwordEncoder)))
+
             // CSRF
             .csrf(csrf -> {
                 if (devProfileActive) {
@@ -61,6 +76,9 @@ public class SecurityConfig {
                     // admin
                     .requestMatchers("/admin/**").hasRole("ADMIN")
 
+                    // Ereignis-Feed (alle Konten)
+                    .requestMatchers("/api/events").hasRole("ADMIN")
+
                     // user
                     .requestMatchers(
                         "/dashboard",
@@ -134,8 +152,40 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${bonus.password.encoder:bcrypt}") String encoderId,
+                                           @Value("${bonus.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${bonus.password.pbkdf2-iterations:310000}") int pbkdf2Iterations) {
+        return buildPasswordEncoder(encoderId, bcryptStrength, pbkdf2Iterations);
+    }
+
+    private static DaoAuthenticationProvider authenticationProvider(CustomerUserDetailsService userDetailsService,
+                                                                    CustomerUserCache customerUserCache,
+                                                                    PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserCache(customerUserCache);
+        // Hashes not matching the configured encoder and cost are rewritten on the next successful login.
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
+    }
+
+    public static PasswordEncoder buildPasswordEncoder(String encoderId, int bcryptStrength, int pbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put("bcrypt", bcrypt);
+        // {pbkdf2} without an iteration count is the earlier format; it is rehashed on the next login.
+        encoders.put("pbkdf2", CostAwarePasswordEncoder.pbkdf2(pbkdf2Iterations));
+        String pbkdf2Id = CostAwarePasswordEncoder.PBKDF2_ID_PREFIX + pbkdf2Iterations;
+        encoders.put(pbkdf2Id, CostAwarePasswordEncoder.pbkdf2(pbkdf2Iterations));
+        String idForEncode = switch (encoderId) {
+            case "bcrypt" -> "bcrypt";
+            case "pbkdf2" -> pbkdf2Id;
+            default -> throw new IllegalArgumentException("Unsupported password encoder: " + encoderId);
+        };
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt.
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new CostAwarePasswordEncoder(encoder, bcryptStrength);
     }
 }
 
@@ -0,0 +1,92 @@
+package at.htlle.controller;
+
+import at.htlle.dto.CacheStatsResponse;
+import at.htlle.dto.CheckpointRunResult;
+import at.htlle.dto.ExpiryRunResult;
+import at.htlle.dto.LedgerEventRelayResult;
+import at.htlle.dto.LoyaltyStatsResponse;
+import at.htlle.dto.ReconciliationReport;
+import at.htlle.dto.TierRunResult;
+import at.htlle.service.BalanceCheckpointService;
+import at.htlle.service.CacheStatsSource;
+import at.htlle.service.LedgerEventService;
+import at.htlle.service.LoyaltyStatsService;
+import at.htlle.service.PointExpiryService;
+import at.htlle.service.ReconciliationService;
+import at.htlle.service.TierRecalculationService;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/api")
+public class AdminApiController {
+
+    private final List<CacheStatsSource> cacheStatsSources;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final PointExpiryService pointExpiryService;
+    private final TierRecalculationService tierRecalculationService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final ReconciliationService reconciliationService;
+    private final LedgerEventService ledgerEventService;
+
+    public AdminApiController(List<CacheStatsSource> cacheStatsSources,
+                              LoyaltyStatsService loyaltyStatsService,
+                              PointExpiryService pointExpiryService,
+                              TierRecalculationService tierRecalculationService,
+                              BalanceCheckpointService balanceCheckpointService,
+                              ReconciliationService reconciliationService,
+                              LedgerEventService ledgerEventService) {
+        this.cacheStatsSources = cacheStatsSources;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.pointExpiryService = pointExpiryService;
+        this.tierRecalculationService = tierRecalculationService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.reconciliationService = reconciliationService;
+        this.ledgerEventService = ledgerEventService;
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStatsResponse> caches() {
+        return cacheStatsSources.stream()
+                .map(CacheStatsSource::cacheStats)
+                .sorted(Comparator.comparing(CacheStatsResponse::name))
+                .toList();
+    }
+
+    @GetMapping("/stats")
+    public LoyaltyStatsResponse stats() {
+        return loyaltyStatsService.snapshot();
+    }
+
+    @PostMapping("/jobs/point-expiry")
+    public ExpiryRunResult runPointExpiry() {
+        return pointExpiryService.runNow();
+    }
+
+    @PostMapping("/jobs/tier-recalculation")
+    public TierRunResult runTierRecalculation(@RequestParam(name = "full", defaultValue = "false") boolean full) {
+        return tierRecalculationService.recalculate(full);
+    }
+
+    @PostMapping("/jobs/balance-checkpoint")
+    public CheckpointRunResult runBalanceCheckpoint() {
+        return balanceCheckpointService.runNow();
+    }
+
+    @PostMapping("/jobs/reconciliation")
+    public ReconciliationReport runReconciliation(@RequestParam(name = "fromAccountId", required = false) Long fromAccountId,
+                                                  @RequestParam(name = "toAccountId", required = false) Long toAccountId,
+                                                  @RequestParam(name = "repair", defaultValue = "false") boolean repair) {
+        return reconciliationService.reconcile(fromAccountId, toAccountId, repair);
+    }
+
+    @PostMapping("/jobs/ledger-event-relay")
+    public LedgerEventRelayResult runLedgerEventRelay() {
+        return ledgerEventService.relay();
+    }
+}
@@ -5,28 +5,39 @@ import at.htlle.entity.PointRule;
 import at.htlle.entity.Restaurant;
 import at.htlle.entity.Reward;
 import at.htlle.entity.Customer;
-import at.htlle.entity.LoyaltyAccount;
 import at.htlle.entity.PointLedger;
-import at.htlle.entity.Purchase;
+import at.htlle.entity.Redemption;
+import at.htlle.dto.AdminCustomerSummary;
+import at.htlle.dto.AdminPurchasePage;
 import at.htlle.dto.AdminRedemptionSummary;
+import at.htlle.dto.AdminRestaurantOverview;
+import at.htlle.dto.LoyaltyStatsResponse;
 import at.htlle.repository.BranchRepository;
 import at.htlle.repository.CustomerRepository;
-import at.htlle.repository.LoyaltyAccountRepository;
 import at.htlle.repository.PointLedgerRepository;
 import at.htlle.repository.PointRuleRepository;
-import at.htlle.repository.PurchaseRepository;
 import at.htlle.repository.RedemptionRepository;
 import at.htlle.repository.RestaurantRepository;
 import at.htlle.repository.RewardRepository;
 import at.htlle.service.AdminManagementService;
+import at.htlle.service.AdminPurchaseService;
+import at.htlle.service.AdminRestaurantQueryService;
+import at.htlle.service.LoyaltyStatsService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -40,48 +51,57 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @RequestMapping("/admin")
 public class AdminController {
 
-    private static final String DEFAULT_POINT_RULE_NAME = "Default Points";
     private static final String FIXED_ADMIN_USERNAME = "admin";
-    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private static final List<Integer> ADMIN_PAGE_SIZES = List.of(25, 50, 100, 200);
+    private static final Map<String, String> CUSTOMER_SORT_COLUMNS = Map.of(
+            "id", "c.id",
+            "name", "c.lastName",
+            "username", "c.username",
+            "email", "c.email",
+            "points", "la.currentPoints");
 
     private final RestaurantRepository restaurantRepository;
     private final BranchRepository branchRepository;
     private final RewardRepository rewardRepository;
     private final PointRuleRepository pointRuleRepository;
     private final CustomerRepository customerRepository;
-    private final LoyaltyAccountRepository loyaltyAccountRepository;
     private final PointLedgerRepository pointLedgerRepository;
-    private final PurchaseRepository purchaseRepository;
     private final RedemptionRepository redemptionRepository;
     private final AdminManagementService adminManagementService;
+    private final AdminPurchaseService adminPurchaseService;
+    private final AdminRestaurantQueryService adminRestaurantQueryService;
+    private final LoyaltyStatsService loyaltyStatsService;
 
     public AdminController(RestaurantRepository restaurantRepository,
                            BranchRepository branchRepository,
                            RewardRepository rewardRepository,
                            PointRuleRepository pointRuleRepository,
                            CustomerRepository customerRepository,
-                           LoyaltyAccountRepository loyaltyAccountRepository,
                            PointLedgerRepository pointLedgerRepository,
-                           PurchaseRepository purchaseRepository,
                            RedemptionRepository redemptionRepository,
-                           AdminManagementService adminManagementService) {
+                           AdminManagementService adminManagementService,
+                           AdminPurchaseService adminPurchaseService,
+                           AdminRestaurantQueryService adminRestaurantQueryService,
+                           LoyaltyStatsService loyaltyStatsService) {
         this.restaurantRepository = restaurantRepository;
         this.branchRepository = branchRepository;
         this.rewardRepository = rewardRepository;
         this.pointRuleRepository = pointRuleRepository;
         this.customerRepository = customerRepository;
-        this.loyaltyAccountRepository = loyaltyAccountRepository;
         this.pointLedgerRepository = pointLedgerRepository;
-        this.purchaseRepository = purchaseRepository;
         this.redemptionRepository = redemptionRepository;
         this.adminManagementService = adminManagementService;
+        this.adminPurchaseService = adminPurchaseService;
+        this.adminRestaurantQueryService = adminRestaurantQueryService;
+        this.loyaltyStatsService = loyaltyStatsService;
     }
 
     @GetMapping
     public String adminHome(Model model) {
-        model.addAttribute("customerCount", customerRepository.count());
-        model.addAttribute("restaurantCount", restaurantRepository.count());
-        model.addAttribute("pointsInCirculation", loyaltyAccountRepository.sumCurrentPoints());
+        LoyaltyStatsResponse stats = loyaltyStatsService.snapshot();
+        model.addAttribute("customerCount", stats.customerCount());
+        model.addAttribute("restaurantCount", stats.restaurantCount());
+        model.addAttribute("pointsInCirculation", stats.pointsInCirculation());
         List<PointLedger> recentLedger = pointLedgerRepository
                 .findAllByOrderByOccurredAtDescIdDesc(PageRequest.of(0, 8))
                 .getContent();
@@ -90,14 +110,24 @@ public class AdminController {
     }
 
     @GetMapping("/customers")
-    public String customers(Model model) {
-        List<Customer> customers = customerRepository.findAll().stream()
-                .sorted(Comparator.comparing(Customer::getId))
-                .toList();
-        List<CustomerSummary> summaries = customers.stream()
-                .map(customer -> new CustomerSummary(customer, primaryAccount(customer.getId())))
-                .toList();
-        model.addAttribute("customers", summaries);
+    public String customers(@RequestParam(name = "page", defaultValue = "0") int page,
+                            @RequestParam(name = "size", defaultValue = "50") int size,
+                            @RequestParam(name = "sort", defaultValue = "id") String sort,
+                            @RequestParam(name = "dir", defaultValue = "asc") String dir,
+                            Model model) {
+        String sortKey = CUSTOMER_SORT_COLUMNS.containsKey(sort) ? sort : "id";
+        int pageSize = ADMIN_PAGE_SIZES.contains(size) ? size : ADMIN_PAGE_SIZES.get(1);
+        Sort.Direction direction = "desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, CUSTOMER_SORT_COLUMNS.get(sortKey));
+        if (!"id".equals(sortKey)) {
+            order = order.and(Sort.by(Sort.Direction.ASC, CUSTOMER_SORT_COLUMNS.get("id")));
+        }
+        Page<AdminCustomerSummary> customers = customerRepository
+                .findAdminSummaries(PageRequest.of(Math.max(page, 0), pageSize, order));
+        model.addAttribute("customers", customers);
+        model.addAttribute("sort", sortKey);
+        model.addAttribute("dir", direction.name().toLowerCase(Locale.ROOT));
+        model.addAttribute("pageSizes", ADMIN_PAGE_SIZES);
         model.addAttribute("adminUsername", FIXED_ADMIN_USERNAME);
         return "admin-customers";
     }
@@ -148,33 +178,73 @@ public class AdminController {
     }
 
     @GetMapping("/purchases")
-    public String purchases(Model model) {
-        List<Purchase> purchases = purchaseRepository.findAllByOrderByPurchasedAtDesc();
-        model.addAttribute("purchases", purchases);
+    public String purchases(@RequestParam(name = "restaurantId", required = false) Long restaurantId,
+                            @RequestParam(name = "from", required = false)
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(name = "to", required = false)
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            @RequestParam(name = "cursor", required = false) String cursor,
+                            @RequestParam(name = "size", defaultValue = "50") int size,
+                            Model model) {
+        int pageSize = ADMIN_PAGE_SIZES.contains(size) ? size : ADMIN_PAGE_SIZES.get(1);
+        AdminPurchasePage purchases = adminPurchaseService.findPage(restaurantId, from, to, cursor, pageSize);
+        List<Restaurant> restaurants = restaurantRepository.findAllOrderedByName();
+        model.addAttribute("purchases", purchases.purchases());
+        model.addAttribute("nextCursor", purchases.nextCursor());
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("restaurants", restaurants);
+        model.addAttribute("filterRestaurantId", restaurantId);
+        model.addAttribute("filterFrom", from);
+        model.addAttribute("filterTo", to);
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("pageSizes", ADMIN_PAGE_SIZES);
         return "admin-purchases";
     }
 
+    @GetMapping("/purchases/export")
+    public void exportPurchases(@RequestParam(name = "restaurantId", required = false) Long restaurantId,
+                                @RequestParam(name = "from", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam(name = "to", required = false)
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("purchases.csv")
+                .build()
+                .toString());
+        adminPurchaseService.exportCsv(restaurantId, from, to, response.getWriter());
+    }
+
     @GetMapping("/rewards")
-    public String rewards(Model model) {
-        List<Reward> rewards = rewardRepository.findAll().stream()
-                .sorted(Comparator.comparing(Reward::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-        List<Restaurant> restaurants = restaurantRepository.findAll().stream()
-                .sorted(Comparator.comparing(Restaurant::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-        List<AdminRedemptionSummary> redemptions = redemptionRepository.findAllByOrderByRedeemedAtDesc().stream()
-                .map(redemption -> new AdminRedemptionSummary(
-                        redemption.getRedemptionCode(),
-                        redemption.getLoyaltyAccount().getCustomer().getEmail(),
-                        redemption.getReward().getName(),
-                        redemption.getRestaurant().getName(),
-                        redemption.getPointsSpent(),
-                        redemption.getStatus(),
-                        redemption.getRedeemedAt()))
-                .toList();
+    public String rewards(@RequestParam(name = "restaurantId", required = false) Long restaurantId,
+                          @RequestParam(name = "status", required = false) Redemption.Status status,
+                          @RequestParam(name = "from", required = false)
+                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(name = "to", required = false)
+                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(name = "page", defaultValue = "0") int page,
+                          @RequestParam(name = "size", defaultValue = "50") int size,
+                          Model model) {
+        List<Reward> rewards = rewardRepository.findAllWithRestaurant();
+        List<Restaurant> restaurants = restaurantRepository.findAllOrderedByName();
+        int pageSize = ADMIN_PAGE_SIZES.contains(size) ? size : ADMIN_PAGE_SIZES.get(1);
+        Page<AdminRedemptionSummary> redemptions = redemptionRepository.findAdminSummaries(
+                restaurantId,
+                status,
+                from != null ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null,
+                to != null ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null,
+                PageRequest.of(Math.max(page, 0), pageSize));
         model.addAttribute("rewards", rewards);
         model.addAttribute("restaurants", restaurants);
         model.addAttribute("redemptions", redemptions);
+        model.addAttribute("redemptionStatuses", Redemption.Status.values());
+        model.addAttribute("filterRestaurantId", restaurantId);
+        model.addAttribute("filterStatus", status);
+        model.addAttribute("filterFrom", from);
+        model.addAttribute("filterTo", to);
+        model.addAttribute("pageSizes", ADMIN_PAGE_SIZES);
         return "admin-rewards";
     }
 
@@ -195,6 +265,7 @@ public class AdminController {
         restaurant.setActive(active);
         restaurant.setDefaultCurrency(defaultCurrency.trim().toUpperCase(Locale.ROOT));
         restaurantRepository.save(restaurant);
+        loyaltyStatsService.recordRestaurantCreated();
         return "redirect:/admin";
     }
 
@@ -220,10 +291,11 @@ public class AdminController {
                                 @RequestParam(name = "active", defaultValue = "true") boolean active) {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
-        PointRule rule = pointRuleRepository.findByRestaurantIdAndName(restaurantId, DEFAULT_POINT_RULE_NAME)
+        PointRule rule = pointRuleRepository
+                .findByRestaurantIdAndName(restaurantId, AdminRestaurantQueryService.DEFAULT_POINT_RULE_NAME)
                 .orElseGet(PointRule::new);
         rule.setRestaurant(restaurant);
-        rule.setName(DEFAULT_POINT_RULE_NAME);
+        rule.setName(AdminRestaurantQueryService.DEFAULT_POINT_RULE_NAME);
         rule.setRuleType(PointRule.RuleType.MULTIPLIER);
         rule.setMultiplier(pointsPerEuro);
         rule.setAmountThreshold(BigDecimal.ONE);
@@ -336,79 +408,11 @@ public class AdminController {
     }
 
     private void loadAdminData(Model model) {
-        List<Restaurant> restaurants = restaurantRepository.findAll().stream()
-                .filter(restaurant -> {
-                    if (restaurant == null) {
-                        logger.warn("Skipping null restaurant in admin data load");
-                        return false;
-                    }
-                    return true;
-                })
-                .sorted(Comparator.comparing(Restaurant::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-        List<Branch> branches = branchRepository.findAll().stream()
-                .filter(branch -> {
-                    if (branch == null) {
-                        logger.warn("Skipping null branch in admin data load");
-                        return false;
-                    }
-                    if (branch.getRestaurant() == null || branch.getRestaurant().getId() == null) {
-                        logger.warn("Skipping branch with missing restaurant. branchId={}", branch.getId());
-                        return false;
-                    }
-                    return true;
-                })
-                .sorted(Comparator.comparing(Branch::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-        List<Reward> rewards = rewardRepository.findAll().stream()
-                .filter(reward -> {
-                    if (reward == null) {
-                        logger.warn("Skipping null reward in admin data load");
-                        return false;
-                    }
-                    if (reward.getRestaurant() == null || reward.getRestaurant().getId() == null) {
-                        logger.warn("Skipping reward with missing restaurant. rewardId={}", reward.getId());
-                        return false;
-                    }
-                    return true;
-                })
-                .sorted(Comparator.comparing(Reward::getName, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-
-        Map<Long, PointRule> defaultRules = new java.util.HashMap<>();
-        for (Restaurant restaurant : restaurants) {
-            if (restaurant == null) {
-                logger.warn("Skipping null restaurant when building default point rules");
-                continue;
-            }
-            Long restaurantId = restaurant.getId();
-            if (restaurantId == null) {
-                logger.warn("Skipping restaurant with null id when building default point rules. name={}",
-                        restaurant.getName());
-                continue;
-            }
-            PointRule rule = pointRuleRepository
-                    .findByRestaurantIdAndName(restaurantId, DEFAULT_POINT_RULE_NAME)
-                    .orElse(null);
-            if (defaultRules.containsKey(restaurantId)) {
-                logger.warn("Duplicate restaurant id {} when building default point rules", restaurantId);
-                continue;
-            }
-            defaultRules.put(restaurantId, rule);
-        }
-
-        model.addAttribute("restaurants", restaurants);
-        model.addAttribute("branches", branches);
-        model.addAttribute("rewards", rewards);
-        model.addAttribute("defaultRules", defaultRules);
+        AdminRestaurantOverview overview = adminRestaurantQueryService.loadOverview();
+        model.addAttribute("restaurants", overview.restaurants());
+        model.addAttribute("branches", overview.branches());
+        model.addAttribute("rewards", overview.rewards());
+        model.addAttribute("defaultRules", overview.defaultRules());
     }
 
-    private LoyaltyAccount primaryAccount(Long customerId) {
-        return loyaltyAccountRepository.findByCustomerIdOrderByIdAsc(customerId).stream()
-                .findFirst()
-                .orElse(null);
-    }
-
-    private record CustomerSummary(Customer customer, LoyaltyAccount account) {
-    }
 }
@@ -9,12 +9,15 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.http.HttpStatus;
 import at.htlle.service.AccountQueryService;
 
 @Controller
 public class DashboardController {
 
+    private static final int DASHBOARD_LEDGER_PAGE_SIZE = 6;
+
     private final AccountQueryService accountQueryService;
     private final SessionAccountResolver sessionAccountResolver;
 
@@ -35,18 +38,21 @@ public class DashboardController {
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model, HttpServletRequest request) {
+    public String dashboard(@RequestParam(required = false) String ledgerCursor,
+                            Model model,
+                            HttpServletRequest request) {
         Long accountId = sessionAccountResolver.getAccountId(request);
         if (accountId == null) {
             return "redirect:/login";
         }
         try {
-            var account = accountQueryService.getAccountResponse(accountId, true);
+            var account = accountQueryService.getAccountResponse(accountId, true, ledgerCursor, DASHBOARD_LEDGER_PAGE_SIZE);
             model.addAttribute("account", account);
         } catch (RuntimeException ex) {
             model.addAttribute("apiError", errorFromException(ex, request, "Failed to load account"));
         }
         model.addAttribute("accountId", accountId);
+        model.addAttribute("ledgerCursor", ledgerCursor);
         return "dashboard";
     }
 
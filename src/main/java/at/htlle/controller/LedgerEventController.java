@@ -0,0 +1,25 @@
+package at.htlle.controller;
+
+import at.htlle.dto.LedgerEventPage;
+import at.htlle.service.LedgerEventService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/events")
+public class LedgerEventController {
+
+    private final LedgerEventService ledgerEventService;
+
+    public LedgerEventController(LedgerEventService ledgerEventService) {
+        this.ledgerEventService = ledgerEventService;
+    }
+
+    @GetMapping
+    public LedgerEventPage events(@RequestParam(name = "after", defaultValue = "0") long after,
+                                  @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return ledgerEventService.feed(after, limit);
+    }
+}
@@ -1,6 +1,8 @@
 package at.htlle.controller;
 
 import at.htlle.dto.AccountResponse;
+import at.htlle.dto.PurchaseBatchResponse;
+import at.htlle.dto.PurchaseIntakeStatus;
 import at.htlle.dto.PurchaseRequest;
 import at.htlle.dto.PurchaseResponse;
 import at.htlle.dto.PurchaseDetailsResponse;
@@ -11,16 +13,29 @@ import at.htlle.entity.Purchase;
 import at.htlle.entity.Redemption;
 import at.htlle.repository.PointLedgerRepository;
 import at.htlle.service.AccountQueryService;
+import at.htlle.service.IdempotencyService;
 import at.htlle.service.LoyaltyService;
+import at.htlle.service.PurchaseBatchService;
+import at.htlle.service.PurchaseIntakeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -32,54 +47,116 @@ public class LoyaltyController {
     private final LoyaltyService loyaltyService;
     private final PointLedgerRepository pointLedgerRepository;
     private final AccountQueryService accountQueryService;
+    private final PurchaseBatchService purchaseBatchService;
+    private final IdempotencyService idempotencyService;
+    private final PurchaseIntakeService purchaseIntakeService;
+    private final ObjectMapper objectMapper;
 
     public LoyaltyController(
             LoyaltyService loyaltyService,
             PointLedgerRepository pointLedgerRepository,
-            AccountQueryService accountQueryService) {
+            AccountQueryService accountQueryService,
+            PurchaseBatchService purchaseBatchService,
+            IdempotencyService idempotencyService,
+            PurchaseIntakeService purchaseIntakeService,
+            ObjectMapper objectMapper) {
         this.loyaltyService = loyaltyService;
         this.pointLedgerRepository = pointLedgerRepository;
         this.accountQueryService = accountQueryService;
+        this.purchaseBatchService = purchaseBatchService;
+        this.idempotencyService = idempotencyService;
+        this.purchaseIntakeService = purchaseIntakeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/purchases")
-    public ResponseEntity<PurchaseResponse> recordPurchase(@Valid @RequestBody PurchaseRequest request) {
-        PointLedger ledger = loyaltyService.recordPurchase(request);
-        Purchase purchase = Objects.requireNonNull(ledger.getPurchase(), "purchase");
+    public ResponseEntity<?> recordPurchase(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = "Prefer", required = false) String prefer,
+            @Valid @RequestBody PurchaseRequest request) {
+        if (prefer != null && prefer.contains("respond-async") && purchaseIntakeService.isEnabled()) {
+            // The tracking id is stored with the key before the purchase is journaled; a failed append discards
+            // the key again, so a retry never journals the same purchase under a second tracking id.
+            return idempotencyService.execute("purchase-async", idempotencyKey, request, PurchaseIntakeStatus.class,
+                    () -> {
+                        PurchaseIntakeStatus accepted = purchaseIntakeService.prepare(request);
+                        return ResponseEntity.accepted()
+                                .location(URI.create("/api/purchases/accepted/" + accepted.trackingId()))
+                                .body(accepted);
+                    },
+                    accepted -> purchaseIntakeService.submit(accepted, request));
+        }
+        return idempotencyService.execute("purchase", idempotencyKey, request, PurchaseResponse.class, () -> {
+            PointLedger ledger = loyaltyService.recordPurchase(request);
+            Purchase purchase = Objects.requireNonNull(ledger.getPurchase(), "purchase");
 
-        PurchaseResponse response = new PurchaseResponse(
-                purchase.getId(),
-                purchase.getPurchaseNumber(),
-                purchase.getTotalAmount(),
-                purchase.getCurrency(),
-                purchase.getPurchasedAt(),
-                ledger.getLoyaltyAccount().getId(),
-                purchase.getRestaurant().getId(),
-                ledger.getId(),
-                ledger.getPoints(),
-                ledger.getBalanceAfter());
+            PurchaseResponse response = new PurchaseResponse(
+                    purchase.getId(),
+                    purchase.getPurchaseNumber(),
+                    purchase.getTotalAmount(),
+                    purchase.getCurrency(),
+                    purchase.getPurchasedAt(),
+                    ledger.getLoyaltyAccount().getId(),
+                    purchase.getRestaurant().getId(),
+                    ledger.getId(),
+                    ledger.getPoints(),
+                    ledger.getBalanceAfter());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    @GetMapping("/purchases/accepted/{trackingId}")
+    public PurchaseIntakeStatus getAcceptedPurchase(@PathVariable("trackingId") String trackingId) {
+        return purchaseIntakeService.status(trackingId);
+    }
+
+    @PostMapping(value = "/purchases/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public PurchaseBatchResponse recordPurchases(@RequestBody List<PurchaseRequest> requests) {
+        return purchaseBatchService.recordPurchases(requests);
+    }
+
+    @PostMapping(value = "/purchases/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public PurchaseBatchResponse recordPurchaseStream(HttpServletRequest request) throws IOException {
+        List<PurchaseRequest> requests = new ArrayList<>();
+        try (MappingIterator<PurchaseRequest> entries = objectMapper
+                .readerFor(PurchaseRequest.class)
+                .readValues(request.getInputStream())) {
+            while (entries.hasNextValue()) {
+                if (requests.size() == PurchaseBatchService.MAX_BATCH_SIZE) {
+                    throw new IllegalArgumentException(
+                            "Batch must not contain more than " + PurchaseBatchService.MAX_BATCH_SIZE + " purchases");
+                }
+                requests.add(entries.nextValue());
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed purchase entry: " + ex.getOriginalMessage());
+        }
+        return purchaseBatchService.recordPurchases(requests);
     }
 
     @PostMapping("/redemptions")
-    public ResponseEntity<RedemptionResponse> redeemReward(@Valid @RequestBody RedemptionRequest request) {
-        Redemption redemption = loyaltyService.redeemReward(request);
-        PointLedger ledger = redemption.getLedgerEntry();
-
-        RedemptionResponse response = new RedemptionResponse(
-                redemption.getId(),
-                redemption.getLoyaltyAccount().getId(),
-                redemption.getReward().getId(),
-                redemption.getRestaurant().getId(),
-                ledger.getId(),
-                redemption.getPointsSpent(),
-                redemption.getRedemptionCode(),
-                ledger.getBalanceAfter(),
-                redemption.getStatus(),
-                redemption.getRedeemedAt());
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<RedemptionResponse> redeemReward(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody RedemptionRequest request) {
+        return idempotencyService.execute("redemption", idempotencyKey, request, RedemptionResponse.class, () -> {
+            Redemption redemption = loyaltyService.redeemReward(request);
+            PointLedger ledger = redemption.getLedgerEntry();
+
+            RedemptionResponse response = new RedemptionResponse(
+                    redemption.getId(),
+                    redemption.getLoyaltyAccount().getId(),
+                    redemption.getReward().getId(),
+                    redemption.getRestaurant().getId(),
+                    ledger.getId(),
+                    redemption.getPointsSpent(),
+                    redemption.getRedemptionCode(),
+                    ledger.getBalanceAfter(),
+                    redemption.getStatus(),
+                    redemption.getRedeemedAt());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     @PostMapping("/accounts/{id}/sync")
@@ -92,8 +169,10 @@ public class LoyaltyController {
 
     @GetMapping("/accounts/{id}")
     public AccountResponse getAccount(@PathVariable("id") Long accountId,
-                                      @RequestParam(defaultValue = "false") boolean includeLedger) {
-        return accountQueryService.getAccountResponse(accountId, includeLedger);
+                                      @RequestParam(defaultValue = "false") boolean includeLedger,
+                                      @RequestParam(required = false) String ledgerCursor,
+                                      @RequestParam(defaultValue = "" + AccountQueryService.DEFAULT_LEDGER_PAGE_SIZE) int ledgerLimit) {
+        return accountQueryService.getAccountResponse(accountId, includeLedger, ledgerCursor, ledgerLimit);
     }
 
     @GetMapping("/ledger/{id}/purchase")
@@ -6,16 +6,14 @@ import at.htlle.dto.PurchaseResponse;
 import at.htlle.dto.RestaurantSummary;
 import at.htlle.entity.PointLedger;
 import at.htlle.entity.Purchase;
-import at.htlle.entity.Restaurant;
-import at.htlle.repository.RestaurantRepository;
 import at.htlle.service.AccountQueryService;
+import at.htlle.service.CatalogService;
 import at.htlle.service.LoyaltyService;
 import at.htlle.util.SessionAccountResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import org.springframework.stereotype.Controller;
@@ -30,16 +28,16 @@ public class PurchaseController {
 
     private final LoyaltyService loyaltyService;
     private final AccountQueryService accountQueryService;
-    private final RestaurantRepository restaurantRepository;
+    private final CatalogService catalogService;
     private final SessionAccountResolver sessionAccountResolver;
 
     public PurchaseController(LoyaltyService loyaltyService,
                               AccountQueryService accountQueryService,
-                              RestaurantRepository restaurantRepository,
+                              CatalogService catalogService,
                               SessionAccountResolver sessionAccountResolver) {
         this.loyaltyService = loyaltyService;
         this.accountQueryService = accountQueryService;
-        this.restaurantRepository = restaurantRepository;
+        this.catalogService = catalogService;
         this.sessionAccountResolver = sessionAccountResolver;
     }
 
@@ -116,41 +114,14 @@ public class PurchaseController {
             model.addAttribute("apiError", errorFromException(ex, request, "Failed to load account"));
         }
 
-        List<RestaurantSummary> restaurants = fetchRestaurants();
+        List<RestaurantSummary> restaurants = catalogService.activeRestaurants();
         model.addAttribute("restaurants", restaurants);
 
         if (restaurantId == null && restaurants.size() == 1) {
             restaurantId = restaurants.get(0).id();
         }
         model.addAttribute("selectedRestaurantId", restaurantId);
-        model.addAttribute("currency", resolveCurrency(restaurants, restaurantId, "EUR"));
-    }
-
-    private List<RestaurantSummary> fetchRestaurants() {
-        return restaurantRepository.findByActiveTrue().stream()
-                .map(this::toSummary)
-                .sorted(Comparator.comparing(RestaurantSummary::name, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-    }
-
-    private String resolveCurrency(List<RestaurantSummary> restaurants, Long restaurantId, String fallback) {
-        if (restaurantId == null) {
-            return fallback;
-        }
-        return restaurants.stream()
-                .filter(restaurant -> restaurant.id().equals(restaurantId))
-                .map(RestaurantSummary::defaultCurrency)
-                .filter(value -> value != null && !value.isBlank())
-                .findFirst()
-                .orElse(fallback);
-    }
-
-    private RestaurantSummary toSummary(Restaurant restaurant) {
-        return new RestaurantSummary(
-                restaurant.getId(),
-                restaurant.getName(),
-                restaurant.getCode(),
-                restaurant.getDefaultCurrency());
+        model.addAttribute("currency", catalogService.currencyFor(restaurantId, "EUR"));
     }
 
     private ErrorResponse errorFromException(RuntimeException ex, HttpServletRequest request, String fallbackMessage) {
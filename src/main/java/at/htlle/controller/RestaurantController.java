@@ -2,54 +2,65 @@ package at.htlle.controller;
 
 import at.htlle.dto.RestaurantSummary;
 import at.htlle.dto.RewardSummary;
-import at.htlle.entity.Restaurant;
-import at.htlle.repository.RestaurantRepository;
-import at.htlle.repository.RewardRepository;
+import at.htlle.service.CatalogService;
 import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/restaurants")
 public class RestaurantController {
 
-    private final RestaurantRepository restaurantRepository;
-    private final RewardRepository rewardRepository;
+    private final CatalogService catalogService;
+    private final CacheControl cacheControl;
 
-    public RestaurantController(RestaurantRepository restaurantRepository, RewardRepository rewardRepository) {
-        this.restaurantRepository = restaurantRepository;
-        this.rewardRepository = rewardRepository;
+    public RestaurantController(CatalogService catalogService,
+                                @Value("${bonus.catalog.max-age:PT60S}") Duration maxAge) {
+        this.catalogService = catalogService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePrivate();
     }
 
     @GetMapping
-    public List<RestaurantSummary> listRestaurants() {
-        return restaurantRepository.findByActiveTrue().stream()
-                .map(this::toSummary)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<RestaurantSummary>> listRestaurants(WebRequest request) {
+        String etag = catalogService.activeRestaurantsEtag();
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(catalogService.activeRestaurants());
     }
 
     @GetMapping("/{id}/rewards")
-    public List<RewardSummary> listActiveRewards(@PathVariable("id") Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new EntityNotFoundException("Restaurant not found"));
-        return rewardRepository.findByRestaurantIdAndActiveTrue(restaurant.getId()).stream()
-                .map(reward -> new RewardSummary(
-                        reward.getId(),
-                        reward.getName(),
-                        reward.getDescription(),
-                        reward.getCostPoints()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<RewardSummary>> listActiveRewards(@PathVariable("id") Long restaurantId,
+                                                                 WebRequest request) {
+        if (catalogService.findRestaurant(restaurantId).isEmpty()) {
+            throw new EntityNotFoundException("Restaurant not found");
+        }
+        String etag = catalogService.activeRewardsEtag(restaurantId);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(catalogService.activeRewards(restaurantId));
     }
 
-    private RestaurantSummary toSummary(Restaurant restaurant) {
-        return new RestaurantSummary(
-                restaurant.getId(),
-                restaurant.getName(),
-                restaurant.getCode(),
-                restaurant.getDefaultCurrency());
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
     }
 }
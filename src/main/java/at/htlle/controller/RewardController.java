@@ -6,17 +6,13 @@ import at.htlle.dto.RedemptionResponse;
 import at.htlle.dto.RestaurantSummary;
 import at.htlle.dto.RewardSummary;
 import at.htlle.entity.Redemption;
-import at.htlle.entity.Restaurant;
-import at.htlle.entity.Reward;
-import at.htlle.repository.RestaurantRepository;
-import at.htlle.repository.RewardRepository;
 import at.htlle.service.AccountQueryService;
+import at.htlle.service.CatalogService;
 import at.htlle.service.LoyaltyService;
 import at.htlle.util.SessionAccountResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -30,19 +26,16 @@ public class RewardController {
 
     private final LoyaltyService loyaltyService;
     private final AccountQueryService accountQueryService;
-    private final RestaurantRepository restaurantRepository;
-    private final RewardRepository rewardRepository;
+    private final CatalogService catalogService;
     private final SessionAccountResolver sessionAccountResolver;
 
     public RewardController(LoyaltyService loyaltyService,
                             AccountQueryService accountQueryService,
-                            RestaurantRepository restaurantRepository,
-                            RewardRepository rewardRepository,
+                            CatalogService catalogService,
                             SessionAccountResolver sessionAccountResolver) {
         this.loyaltyService = loyaltyService;
         this.accountQueryService = accountQueryService;
-        this.restaurantRepository = restaurantRepository;
-        this.rewardRepository = rewardRepository;
+        this.catalogService = catalogService;
         this.sessionAccountResolver = sessionAccountResolver;
     }
 
@@ -108,7 +101,7 @@ public class RewardController {
         }
         model.addAttribute("accountId", accountId);
 
-        List<RestaurantSummary> restaurants = fetchRestaurants();
+        List<RestaurantSummary> restaurants = catalogService.activeRestaurants();
         model.addAttribute("restaurants", restaurants);
         if (restaurantId == null && restaurants.size() == 1) {
             restaurantId = restaurants.get(0).id();
@@ -117,7 +110,7 @@ public class RewardController {
 
         List<RewardSummary> rewards = List.of();
         if (restaurantId != null) {
-            rewards = fetchRewards(restaurantId);
+            rewards = catalogService.activeRewards(restaurantId);
         }
         model.addAttribute("rewards", rewards);
 
@@ -129,35 +122,6 @@ public class RewardController {
         }
     }
 
-    private List<RestaurantSummary> fetchRestaurants() {
-        return restaurantRepository.findByActiveTrue().stream()
-                .map(this::toSummary)
-                .sorted(Comparator.comparing(RestaurantSummary::name, Comparator.nullsLast(String::compareToIgnoreCase)))
-                .toList();
-    }
-
-    private List<RewardSummary> fetchRewards(Long restaurantId) {
-        return rewardRepository.findByRestaurantIdAndActiveTrue(restaurantId).stream()
-                .map(this::toRewardSummary)
-                .toList();
-    }
-
-    private RestaurantSummary toSummary(Restaurant restaurant) {
-        return new RestaurantSummary(
-                restaurant.getId(),
-                restaurant.getName(),
-                restaurant.getCode(),
-                restaurant.getDefaultCurrency());
-    }
-
-    private RewardSummary toRewardSummary(Reward reward) {
-        return new RewardSummary(
-                reward.getId(),
-                reward.getName(),
-                reward.getDescription(),
-                reward.getCostPoints());
-    }
-
     private ErrorResponse errorFromException(RuntimeException ex, HttpServletRequest request, String fallbackMessage) {
         HttpStatus status = resolveStatus(ex);
         String message = ex.getMessage() != null ? ex.getMessage() : fallbackMessage;
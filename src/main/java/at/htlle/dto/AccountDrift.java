@@ -0,0 +1,13 @@
+package at.htlle.dto;
+
+public record AccountDrift(
+        long accountId,
+        long currentPoints,
+        long ledgerPoints,
+        long chainBreaks,
+        long lastEntryNo) {
+
+    public boolean hasBalanceDrift() {
+        return currentPoints != ledgerPoints;
+    }
+}
@@ -0,0 +1,11 @@
+package at.htlle.dto;
+
+public record AccountExpiryTotals(
+        Long accountId,
+        Long creditedBeforeCutoff,
+        Long debited) {
+
+    public long expiringPoints() {
+        return Math.max(0, creditedBeforeCutoff - debited);
+    }
+}
@@ -16,5 +16,6 @@ public record AccountResponse(
         Long currentPoints,
         Instant createdAt,
         Instant updatedAt,
-        List<LedgerEntryResponse> ledgerEntries) {
+        List<LedgerEntryResponse> ledgerEntries,
+        String nextLedgerCursor) {
 }
@@ -0,0 +1,17 @@
+package at.htlle.dto;
+
+import at.htlle.entity.Customer;
+import at.htlle.entity.LoyaltyAccount;
+
+public record AdminCustomerSummary(
+        Long customerId,
+        String firstName,
+        String lastName,
+        String username,
+        String email,
+        Customer.Role role,
+        Customer.Status status,
+        String accountNumber,
+        Long currentPoints,
+        LoyaltyAccount.Status accountStatus) {
+}
@@ -0,0 +1,8 @@
+package at.htlle.dto;
+
+import java.util.List;
+
+public record AdminPurchasePage(
+        List<AdminPurchaseSummary> purchases,
+        String nextCursor) {
+}
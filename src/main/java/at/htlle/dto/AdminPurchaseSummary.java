@@ -0,0 +1,15 @@
+package at.htlle.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record AdminPurchaseSummary(
+        Long purchaseId,
+        Instant purchasedAt,
+        String purchaseNumber,
+        String customerFirstName,
+        String customerLastName,
+        String restaurantName,
+        BigDecimal totalAmount,
+        String currency) {
+}
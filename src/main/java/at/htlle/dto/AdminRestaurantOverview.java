@@ -0,0 +1,15 @@
+package at.htlle.dto;
+
+import at.htlle.entity.Branch;
+import at.htlle.entity.PointRule;
+import at.htlle.entity.Restaurant;
+import at.htlle.entity.Reward;
+import java.util.List;
+import java.util.Map;
+
+public record AdminRestaurantOverview(
+        List<Restaurant> restaurants,
+        List<Branch> branches,
+        List<Reward> rewards,
+        Map<Long, PointRule> defaultRules) {
+}
@@ -0,0 +1,10 @@
+package at.htlle.dto;
+
+public record CacheStatsResponse(
+        String name,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions) {
+}
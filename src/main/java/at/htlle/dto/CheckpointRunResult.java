@@ -0,0 +1,6 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+
+public record CheckpointRunResult(long accountsCheckpointed, Instant changesSince) {
+}
@@ -0,0 +1,6 @@
+package at.htlle.dto;
+
+public record CustomerAccountId(
+        Long customerId,
+        Long accountId) {
+}
@@ -0,0 +1,10 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+
+public record ExpiryRunResult(
+        Instant cutoff,
+        long accountsScanned,
+        long accountsExpired,
+        long pointsExpired) {
+}
@@ -0,0 +1,36 @@
+package at.htlle.dto;
+
+import at.htlle.entity.LedgerEvent;
+import at.htlle.entity.PointLedger;
+import java.time.Instant;
+
+public record LedgerEventMessage(
+        Long position,
+        Long eventId,
+        PointLedger.EntryType eventType,
+        Long ledgerEntryId,
+        Long accountId,
+        Long entryNo,
+        Long points,
+        Long balanceAfter,
+        Instant occurredAt,
+        String purchaseNumber,
+        Long redemptionId,
+        Instant publishedAt) {
+
+    public static LedgerEventMessage of(LedgerEvent event) {
+        return new LedgerEventMessage(
+                event.getFeedPosition(),
+                event.getId(),
+                event.getEventType(),
+                event.getLedgerEntryId(),
+                event.getLoyaltyAccountId(),
+                event.getEntryNo(),
+                event.getPoints(),
+                event.getBalanceAfter(),
+                event.getOccurredAt(),
+                event.getPurchaseNumber(),
+                event.getRedemptionId(),
+                event.getPublishedAt());
+    }
+}
@@ -0,0 +1,8 @@
+package at.htlle.dto;
+
+import java.util.List;
+
+public record LedgerEventPage(
+        List<LedgerEventMessage> events,
+        long nextAfter) {
+}
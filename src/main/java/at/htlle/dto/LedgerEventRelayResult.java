@@ -0,0 +1,6 @@
+package at.htlle.dto;
+
+public record LedgerEventRelayResult(
+        long eventsPublished,
+        long lastPosition) {
+}
@@ -0,0 +1,8 @@
+package at.htlle.dto;
+
+public record LedgerTail(Long lastEntryNo, long entries, long points) {
+
+    public boolean isEmpty() {
+        return entries == 0;
+    }
+}
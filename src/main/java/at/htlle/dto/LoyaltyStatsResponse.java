@@ -0,0 +1,12 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record LoyaltyStatsResponse(
+        long customerCount,
+        long restaurantCount,
+        long pointsInCirculation,
+        Map<Long, Long> pointsByRestaurant,
+        Instant reconciledAt) {
+}
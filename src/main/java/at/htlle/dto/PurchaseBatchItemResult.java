@@ -0,0 +1,14 @@
+package at.htlle.dto;
+
+public record PurchaseBatchItemResult(
+        int index,
+        String purchaseNumber,
+        Status status,
+        PurchaseResponse purchase,
+        String error) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
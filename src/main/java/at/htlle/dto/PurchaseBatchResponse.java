@@ -0,0 +1,9 @@
+package at.htlle.dto;
+
+import java.util.List;
+
+public record PurchaseBatchResponse(
+        int created,
+        int failed,
+        List<PurchaseBatchItemResult> results) {
+}
@@ -0,0 +1,17 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+
+public record PurchaseIntakeStatus(
+        String trackingId,
+        Status status,
+        Instant acceptedAt,
+        PurchaseResponse purchase,
+        String error) {
+
+    public enum Status {
+        PENDING,
+        POSTED,
+        FAILED
+    }
+}
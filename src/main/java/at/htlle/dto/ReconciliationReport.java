@@ -0,0 +1,16 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ReconciliationReport(
+        Instant startedAt,
+        long durationMillis,
+        int partitions,
+        long accountsChecked,
+        long ledgerEntriesChecked,
+        long accountsWithBalanceDrift,
+        long accountsWithBrokenChain,
+        long accountsRepaired,
+        List<AccountDrift> drifts) {
+}
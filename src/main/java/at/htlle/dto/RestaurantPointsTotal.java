@@ -0,0 +1,6 @@
+package at.htlle.dto;
+
+public record RestaurantPointsTotal(
+        Long restaurantId,
+        Long points) {
+}
@@ -0,0 +1,10 @@
+package at.htlle.dto;
+
+import java.time.Instant;
+
+public record TierRunResult(
+        boolean full,
+        long accountsEvaluated,
+        long tiersChanged,
+        Instant changesSince) {
+}
@@ -0,0 +1,68 @@
+package at.htlle.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "balance_checkpoint")
+public class BalanceCheckpoint {
+
+    @Id
+    @Column(name = "loyalty_account_id", nullable = false)
+    private Long loyaltyAccountId;
+
+    @Column(name = "last_entry_no", nullable = false)
+    private Long lastEntryNo;
+
+    @Column(name = "balance", nullable = false)
+    private Long balance;
+
+    @Column(name = "checkpointed_at", nullable = false)
+    private Instant checkpointedAt;
+
+    protected BalanceCheckpoint() {
+    }
+
+    public BalanceCheckpoint(Long loyaltyAccountId) {
+        this.loyaltyAccountId = loyaltyAccountId;
+        this.lastEntryNo = 0L;
+        this.balance = 0L;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void onSave() {
+        checkpointedAt = Instant.now();
+    }
+
+    public void advance(Long lastEntryNo, long pointsSinceCheckpoint) {
+        this.lastEntryNo = lastEntryNo;
+        this.balance = balance + pointsSinceCheckpoint;
+    }
+
+    public void reset(Long lastEntryNo, long balance) {
+        this.lastEntryNo = lastEntryNo;
+        this.balance = balance;
+    }
+
+    public Long getLoyaltyAccountId() {
+        return loyaltyAccountId;
+    }
+
+    public Long getLastEntryNo() {
+        return lastEntryNo;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    public Instant getCheckpointedAt() {
+        return checkpointedAt;
+    }
+}
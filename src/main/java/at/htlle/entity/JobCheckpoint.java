@@ -0,0 +1,83 @@
+package at.htlle.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+
+@Entity
+@Table(name = "job_checkpoint")
+public class JobCheckpoint {
+
+    @Id
+    @NotBlank
+    @Size(max = 60)
+    @Column(name = "job_name", nullable = false, length = 60)
+    private String jobName;
+
+    @Column(name = "cursor_id")
+    private Long cursorId;
+
+    @Column(name = "reference_at")
+    private Instant referenceAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected JobCheckpoint() {
+    }
+
+    public JobCheckpoint(String jobName) {
+        this.jobName = jobName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void onSave() {
+        updatedAt = Instant.now();
+    }
+
+    public boolean isInProgress() {
+        return cursorId != null && referenceAt != null;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public Long getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(Long cursorId) {
+        this.cursorId = cursorId;
+    }
+
+    public Instant getReferenceAt() {
+        return referenceAt;
+    }
+
+    public void setReferenceAt(Instant referenceAt) {
+        this.referenceAt = referenceAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,137 @@
+package at.htlle.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "ledger_event")
+public class LedgerEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_event_seq")
+    @SequenceGenerator(name = "ledger_event_seq", sequenceName = "ledger_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "feed_position", unique = true)
+    private Long feedPosition;
+
+    @Column(name = "ledger_entry_id", nullable = false, updatable = false)
+    private Long ledgerEntryId;
+
+    @Column(name = "loyalty_account_id", nullable = false, updatable = false)
+    private Long loyaltyAccountId;
+
+    @Column(name = "entry_no", nullable = false, updatable = false)
+    private Long entryNo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20, updatable = false)
+    private PointLedger.EntryType eventType;
+
+    @Column(name = "points", nullable = false, updatable = false)
+    private Long points;
+
+    @Column(name = "balance_after", nullable = false, updatable = false)
+    private Long balanceAfter;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private Instant occurredAt;
+
+    @Column(name = "purchase_number", length = 40, updatable = false)
+    private String purchaseNumber;
+
+    @Column(name = "redemption_id", updatable = false)
+    private Long redemptionId;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private Instant recordedAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    protected LedgerEvent() {
+    }
+
+    public LedgerEvent(PointLedger ledger) {
+        this.ledgerEntryId = ledger.getId();
+        this.loyaltyAccountId = ledger.getLoyaltyAccount().getId();
+        this.entryNo = ledger.getEntryNo();
+        this.eventType = ledger.getEntryType();
+        this.points = ledger.getPoints();
+        this.balanceAfter = ledger.getBalanceAfter();
+        this.occurredAt = ledger.getOccurredAt();
+        this.purchaseNumber = ledger.getPurchase() != null ? ledger.getPurchase().getPurchaseNumber() : null;
+        this.redemptionId = ledger.getRedemption() != null ? ledger.getRedemption().getId() : null;
+    }
+
+    @PrePersist
+    void onCreate() {
+        recordedAt = Instant.now();
+    }
+
+    public void publish(long feedPosition, Instant publishedAt) {
+        this.feedPosition = feedPosition;
+        this.publishedAt = publishedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getFeedPosition() {
+        return feedPosition;
+    }
+
+    public Long getLedgerEntryId() {
+        return ledgerEntryId;
+    }
+
+    public Long getLoyaltyAccountId() {
+        return loyaltyAccountId;
+    }
+
+    public Long getEntryNo() {
+        return entryNo;
+    }
+
+    public PointLedger.EntryType getEventType() {
+        return eventType;
+    }
+
+    public Long getPoints() {
+        return points;
+    }
+
+    public Long getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getPurchaseNumber() {
+        return purchaseNumber;
+    }
+
+    public Long getRedemptionId() {
+        return redemptionId;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+}
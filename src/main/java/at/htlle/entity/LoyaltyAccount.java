@@ -1,8 +1,10 @@
 package at.htlle.entity;
 
+import at.htlle.service.AccountSummaryChangeListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -15,8 +17,10 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -26,6 +30,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(AccountSummaryChangeListener.class)
 @Table(name = "loyalty_account", uniqueConstraints = {
         @UniqueConstraint(name = "uk_loyalty_account_number", columnNames = "account_number"),
         @UniqueConstraint(name = "uk_loyalty_account_customer_restaurant", columnNames = {"customer_id", "restaurant_id"})
@@ -49,7 +54,8 @@ public class LoyaltyAccount {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loyalty_account_seq")
+    @SequenceGenerator(name = "loyalty_account_seq", sequenceName = "loyalty_account_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -78,12 +84,19 @@ public class LoyaltyAccount {
     @Column(name = "current_points", nullable = false)
     private Long currentPoints = 0L;
 
+    @Column(name = "last_ledger_entry_no", nullable = false)
+    private Long lastLedgerEntryNo = 0L;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     @OneToMany(mappedBy = "loyaltyAccount", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Purchase> purchases = new ArrayList<>();
 
@@ -157,6 +170,20 @@ public class LoyaltyAccount {
         this.currentPoints = currentPoints;
     }
 
+    public Long getLastLedgerEntryNo() {
+        return lastLedgerEntryNo;
+    }
+
+    // Numbers ledger entries per account; callers hold the account lock, so the numbers follow commit order.
+    public long nextLedgerEntryNo() {
+        advanceLedgerEntryNo(1);
+        return lastLedgerEntryNo;
+    }
+
+    public void advanceLedgerEntryNo(int count) {
+        lastLedgerEntryNo = lastLedgerEntryNo + count;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -165,6 +192,10 @@ public class LoyaltyAccount {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public List<Purchase> getPurchases() {
         return purchases;
     }
@@ -13,6 +13,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
@@ -23,7 +24,10 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "point_ledger", indexes = {
-        @Index(name = "idx_point_ledger_account", columnList = "loyalty_account_id"),
+        @Index(name = "idx_point_ledger_account_occurred", columnList = "loyalty_account_id, occurred_at desc, id desc"),
+        @Index(name = "idx_point_ledger_account_id", columnList = "loyalty_account_id, id"),
+        @Index(name = "uk_point_ledger_account_entry", columnList = "loyalty_account_id, entry_no", unique = true),
+        @Index(name = "idx_point_ledger_recorded", columnList = "recorded_at"),
         @Index(name = "idx_point_ledger_purchase", columnList = "purchase_id"),
         @Index(name = "idx_point_ledger_rule", columnList = "point_rule_id")
 })
@@ -37,13 +41,17 @@ public class PointLedger {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_ledger_seq")
+    @SequenceGenerator(name = "point_ledger_seq", sequenceName = "point_ledger_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "loyalty_account_id", nullable = false)
     private LoyaltyAccount loyaltyAccount;
 
+    @Column(name = "entry_no", nullable = false, updatable = false)
+    private Long entryNo;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "entry_type", nullable = false, length = 20)
     private EntryType entryType;
@@ -62,6 +70,9 @@ public class PointLedger {
     @Column(name = "occurred_at", nullable = false)
     private Instant occurredAt;
 
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private Instant recordedAt;
+
     @Size(max = 255)
     @Column(name = "description", length = 255)
     private String description;
@@ -79,6 +90,11 @@ public class PointLedger {
 
     @PrePersist
     void onCreate() {
+        recordedAt = Instant.now();
+        // Services reserve numbers through AccountWriteExecutor; this covers entries written without it.
+        if (entryNo == null) {
+            entryNo = loyaltyAccount.nextLedgerEntryNo();
+        }
         if (occurredAt == null) {
             occurredAt = Instant.now();
         }
@@ -101,6 +117,14 @@ public class PointLedger {
         this.loyaltyAccount = loyaltyAccount;
     }
 
+    public Long getEntryNo() {
+        return entryNo;
+    }
+
+    public void setEntryNo(Long entryNo) {
+        this.entryNo = entryNo;
+    }
+
     public EntryType getEntryType() {
         return entryType;
     }
@@ -133,6 +157,10 @@ public class PointLedger {
         this.occurredAt = occurredAt;
     }
 
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
     public String getDescription() {
         return description;
     }
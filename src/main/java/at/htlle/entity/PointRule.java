@@ -1,7 +1,9 @@
 package at.htlle.entity;
 
+import at.htlle.service.PointRuleChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -11,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.DecimalMin;
@@ -22,6 +25,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(PointRuleChangeListener.class)
 @Table(name = "point_rule", uniqueConstraints = {
         @UniqueConstraint(name = "uk_point_rule_name_per_restaurant", columnNames = {"restaurant_id", "name"})
 }, indexes = {
@@ -35,7 +39,8 @@ public class PointRule {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_rule_seq")
+    @SequenceGenerator(name = "point_rule_seq", sequenceName = "point_rule_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Digits;
@@ -31,12 +32,14 @@ import java.util.List;
 }, indexes = {
         @Index(name = "idx_purchase_account", columnList = "loyalty_account_id"),
         @Index(name = "idx_purchase_restaurant", columnList = "restaurant_id"),
-        @Index(name = "idx_purchase_occurred_at", columnList = "purchased_at")
+        @Index(name = "idx_purchase_purchased", columnList = "purchased_at desc, id desc"),
+        @Index(name = "idx_purchase_restaurant_purchased", columnList = "restaurant_id, purchased_at desc, id desc")
 })
 public class Purchase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_seq")
+    @SequenceGenerator(name = "purchase_seq", sequenceName = "purchase_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
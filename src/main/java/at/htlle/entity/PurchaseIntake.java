@@ -0,0 +1,97 @@
+package at.htlle.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "purchase_intake")
+public class PurchaseIntake {
+
+    public enum Status {
+        POSTED,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "tracking_id", nullable = false, length = 36)
+    private String trackingId;
+
+    @Column(name = "purchase_number", length = 40)
+    private String purchaseNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "accepted_at", nullable = false)
+    private Instant acceptedAt;
+
+    @Column(name = "posted_at", nullable = false)
+    private Instant postedAt;
+
+    protected PurchaseIntake() {
+    }
+
+    public PurchaseIntake(String trackingId, String purchaseNumber, Instant acceptedAt) {
+        this.trackingId = trackingId;
+        this.purchaseNumber = purchaseNumber;
+        this.acceptedAt = acceptedAt;
+    }
+
+    @PrePersist
+    void onCreate() {
+        postedAt = Instant.now();
+    }
+
+    public void posted(String responseBody) {
+        this.status = Status.POSTED;
+        this.responseBody = responseBody;
+        this.error = null;
+    }
+
+    public void failed(String error) {
+        this.status = Status.FAILED;
+        this.responseBody = null;
+        this.error = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getPurchaseNumber() {
+        return purchaseNumber;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public Instant getPostedAt() {
+        return postedAt;
+    }
+}
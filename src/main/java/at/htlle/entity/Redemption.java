@@ -12,6 +12,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
@@ -23,7 +24,9 @@ import java.time.Instant;
 @Table(name = "redemption", indexes = {
         @Index(name = "idx_redemption_account", columnList = "loyalty_account_id"),
         @Index(name = "idx_redemption_reward", columnList = "reward_id"),
-        @Index(name = "idx_redemption_restaurant", columnList = "restaurant_id")
+        @Index(name = "idx_redemption_restaurant", columnList = "restaurant_id"),
+        @Index(name = "idx_redemption_restaurant_redeemed", columnList = "restaurant_id, redeemed_at desc"),
+        @Index(name = "idx_redemption_redeemed", columnList = "redeemed_at desc, id desc")
 })
 public class Redemption {
 
@@ -34,7 +37,8 @@ public class Redemption {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "redemption_seq")
+    @SequenceGenerator(name = "redemption_seq", sequenceName = "redemption_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
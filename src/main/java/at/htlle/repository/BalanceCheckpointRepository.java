@@ -0,0 +1,7 @@
+package at.htlle.repository;
+
+import at.htlle.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+}
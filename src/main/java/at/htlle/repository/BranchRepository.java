@@ -4,9 +4,13 @@ import at.htlle.entity.Branch;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface BranchRepository extends JpaRepository<Branch, Long> {
     Optional<Branch> findByRestaurantIdAndBranchCode(Long restaurantId, String branchCode);
 
     List<Branch> findByRestaurantId(Long restaurantId);
+
+    @Query("select b from Branch b join fetch b.restaurant order by lower(b.name), b.id")
+    List<Branch> findAllWithRestaurant();
 }
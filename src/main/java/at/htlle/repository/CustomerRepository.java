@@ -1,10 +1,30 @@
 package at.htlle.repository;
 
+import at.htlle.dto.AdminCustomerSummary;
+import at.htlle.dto.CustomerAccountId;
 import at.htlle.entity.Customer;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByUsername(String username);
+
+    @Query(value = "select new at.htlle.dto.AdminCustomerSummary(c.id, c.firstName, c.lastName, c.username, c.email, "
+            + "c.role, c.status, la.accountNumber, la.currentPoints, la.status) "
+            + "from Customer c left join LoyaltyAccount la on la.customer = c "
+            + "and la.id = (select min(first.id) from LoyaltyAccount first where first.customer = c)",
+            countQuery = "select count(c) from Customer c")
+    Page<AdminCustomerSummary> findAdminSummaries(Pageable pageable);
+
+    @Query("select new at.htlle.dto.CustomerAccountId(c.id, la.id) "
+            + "from Customer c left join LoyaltyAccount la on la.customer = c "
+            + "where c.username = :username order by la.id")
+    List<CustomerAccountId> findAccountIdsByUsername(@Param("username") String username, Limit limit);
 }
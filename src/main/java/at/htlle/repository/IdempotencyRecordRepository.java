@@ -0,0 +1,56 @@
+package at.htlle.repository;
+
+import at.htlle.entity.IdempotencyRecord;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Modifying
+    @Query("update IdempotencyRecord ir set ir.status = at.htlle.entity.IdempotencyRecord.Status.IN_PROGRESS, "
+            + "ir.requestHash = :requestHash, ir.responseStatus = null, ir.responseBody = null, "
+            + "ir.createdAt = :reservedAt "
+            + "where ir.id = :id and ir.createdAt = :createdAt "
+            + "and ((ir.status = at.htlle.entity.IdempotencyRecord.Status.IN_PROGRESS and ir.createdAt < :staleBefore) "
+            + "or ir.createdAt < :expiredBefore)")
+    int reclaim(@Param("id") Long id,
+                @Param("createdAt") Instant createdAt,
+                @Param("staleBefore") Instant staleBefore,
+                @Param("expiredBefore") Instant expiredBefore,
+                @Param("requestHash") String requestHash,
+                @Param("reservedAt") Instant reservedAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord ir set ir.status = at.htlle.entity.IdempotencyRecord.Status.COMPLETED, "
+            + "ir.responseStatus = :responseStatus, ir.responseBody = :responseBody "
+            + "where ir.id = :id and ir.status = at.htlle.entity.IdempotencyRecord.Status.IN_PROGRESS "
+            + "and ir.createdAt = :reservedAt")
+    int complete(@Param("id") Long id,
+                 @Param("reservedAt") Instant reservedAt,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord ir "
+            + "where ir.id = :id and ir.status = at.htlle.entity.IdempotencyRecord.Status.IN_PROGRESS "
+            + "and ir.createdAt = :reservedAt")
+    int release(@Param("id") Long id, @Param("reservedAt") Instant reservedAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord ir "
+            + "where ir.id = :id and ir.status = at.htlle.entity.IdempotencyRecord.Status.COMPLETED "
+            + "and ir.createdAt = :reservedAt")
+    int discard(@Param("id") Long id, @Param("reservedAt") Instant reservedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord ir where ir.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
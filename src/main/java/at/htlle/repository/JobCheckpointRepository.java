@@ -0,0 +1,16 @@
+package at.htlle.repository;
+
+import at.htlle.entity.JobCheckpoint;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select jc from JobCheckpoint jc where jc.jobName = :jobName")
+    Optional<JobCheckpoint> lockByJobName(@Param("jobName") String jobName);
+}
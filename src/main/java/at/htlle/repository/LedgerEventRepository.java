@@ -0,0 +1,31 @@
+package at.htlle.repository;
+
+import at.htlle.entity.LedgerEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    // Roughly in commit order, but an event is held back while an earlier entry of the same account sorts
+    // after it (clocks of different nodes drift), so every account's events are published in entry order.
+    @Query("select e from LedgerEvent e where e.feedPosition is null and not exists ("
+            + "select earlier.id from LedgerEvent earlier where earlier.feedPosition is null "
+            + "and earlier.loyaltyAccountId = e.loyaltyAccountId and earlier.entryNo < e.entryNo "
+            + "and (earlier.recordedAt > e.recordedAt or (earlier.recordedAt = e.recordedAt and earlier.id > e.id))) "
+            + "order by e.recordedAt, e.id")
+    List<LedgerEvent> findUnpublished(Limit limit);
+
+    @Query("select e from LedgerEvent e where e.feedPosition > :after order by e.feedPosition")
+    List<LedgerEvent> findPublishedAfter(@Param("after") long after, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from LedgerEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
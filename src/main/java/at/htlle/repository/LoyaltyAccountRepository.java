@@ -1,8 +1,11 @@
 package at.htlle.repository;
 
+import at.htlle.dto.RestaurantPointsTotal;
 import at.htlle.entity.LoyaltyAccount;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -16,10 +19,15 @@ public interface LoyaltyAccountRepository extends JpaRepository<LoyaltyAccount,
 
     Optional<LoyaltyAccount> findByCustomerIdAndRestaurantId(Long customerId, Long restaurantId);
 
-    List<LoyaltyAccount> findByCustomerIdOrderByIdAsc(Long customerId);
+    @EntityGraph(attributePaths = "customer")
+    Optional<LoyaltyAccount> findWithCustomerById(Long id);
 
-    @Query("select coalesce(sum(la.currentPoints),0) from LoyaltyAccount la")
-    Long sumCurrentPoints();
+    @Query("select new at.htlle.dto.RestaurantPointsTotal(la.restaurant.id, coalesce(sum(la.currentPoints),0)) "
+            + "from LoyaltyAccount la group by la.restaurant.id")
+    List<RestaurantPointsTotal> sumCurrentPointsByRestaurant();
+
+    @Query("select la.id from LoyaltyAccount la where la.id > :afterId order by la.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select la from LoyaltyAccount la where la.id = :id")
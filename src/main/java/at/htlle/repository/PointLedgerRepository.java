@@ -1,8 +1,13 @@
 package at.htlle.repository;
 
+import at.htlle.dto.AccountExpiryTotals;
+import at.htlle.dto.LedgerTail;
 import at.htlle.entity.PointLedger;
+import java.util.Collection;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,20 +16,47 @@ import org.springframework.data.repository.query.Param;
 
 public interface PointLedgerRepository extends JpaRepository<PointLedger, Long> {
 
-    @Query("select coalesce(sum(pl.points),0) from PointLedger pl where pl.loyaltyAccount.id = :accountId")
-    Long sumPointsForAccount(@Param("accountId") Long accountId);
+    @Query("select new at.htlle.dto.LedgerTail(max(pl.entryNo), count(pl), coalesce(sum(pl.points), 0)) "
+            + "from PointLedger pl where pl.loyaltyAccount.id = :accountId and pl.entryNo > :afterEntryNo")
+    LedgerTail sumLedgerTail(@Param("accountId") Long accountId, @Param("afterEntryNo") Long afterEntryNo);
+
+    @Query("select distinct pl.loyaltyAccount.id from PointLedger pl "
+            + "where pl.recordedAt >= :since and pl.loyaltyAccount.id > :afterAccountId "
+            + "order by pl.loyaltyAccount.id")
+    List<Long> findAccountIdsRecordedSince(@Param("since") Instant since,
+                                           @Param("afterAccountId") Long afterAccountId,
+                                           Limit limit);
 
     List<PointLedger> findByLoyaltyAccountIdOrderByOccurredAtAsc(Long accountId);
 
+    @Query("select pl from PointLedger pl join fetch pl.purchase p "
+            + "where p.purchaseNumber = :purchaseNumber and pl.entryType = at.htlle.entity.PointLedger.EntryType.EARN")
+    Optional<PointLedger> findEarnEntryByPurchaseNumber(@Param("purchaseNumber") String purchaseNumber);
+
     List<PointLedger> findByLoyaltyAccountIdOrderByOccurredAtDesc(Long accountId);
 
     @Query("select pl from PointLedger pl left join fetch pl.redemption "
             + "where pl.loyaltyAccount.id = :accountId order by pl.occurredAt desc, pl.id desc")
-    List<PointLedger> findDetailedByAccountIdOrderByOccurredAtDesc(@Param("accountId") Long accountId);
+    List<PointLedger> findLedgerPage(@Param("accountId") Long accountId, Limit limit);
+
+    @Query("select pl from PointLedger pl left join fetch pl.redemption "
+            + "where pl.loyaltyAccount.id = :accountId and (pl.occurredAt, pl.id) < (:occurredAt, :id) "
+            + "order by pl.occurredAt desc, pl.id desc")
+    List<PointLedger> findLedgerPageBefore(@Param("accountId") Long accountId,
+                                           @Param("occurredAt") Instant occurredAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
 
     @Query(value = "select balance_after from point_ledger where loyalty_account_id = :accountId order by occurred_at desc, id desc limit 1",
             nativeQuery = true)
     Optional<Long> findLastBalanceForAccount(@Param("accountId") Long accountId);
 
     Page<PointLedger> findAllByOrderByOccurredAtDescIdDesc(Pageable pageable);
+
+    @Query("select new at.htlle.dto.AccountExpiryTotals(pl.loyaltyAccount.id, "
+            + "coalesce(sum(case when pl.points > 0 and pl.occurredAt < :cutoff then pl.points else 0 end), 0), "
+            + "coalesce(sum(case when pl.points < 0 then -pl.points else 0 end), 0)) "
+            + "from PointLedger pl where pl.loyaltyAccount.id in :accountIds group by pl.loyaltyAccount.id")
+    List<AccountExpiryTotals> sumExpiryTotals(@Param("accountIds") Collection<Long> accountIds,
+                                              @Param("cutoff") Instant cutoff);
 }
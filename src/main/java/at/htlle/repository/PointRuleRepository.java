@@ -14,6 +14,8 @@ public interface PointRuleRepository extends JpaRepository<PointRule, Long> {
 
     List<PointRule> findByRestaurantId(Long restaurantId);
 
+    List<PointRule> findByName(String name);
+
     @Query("select pr from PointRule pr where pr.restaurant.id = :restaurantId and pr.active = true and (pr.validFrom is null or pr.validFrom <= :referenceDate) and (pr.validUntil is null or pr.validUntil >= :referenceDate)")
     List<PointRule> findActiveRulesForDate(@Param("restaurantId") Long restaurantId, @Param("referenceDate") LocalDate referenceDate);
 }
@@ -0,0 +1,7 @@
+package at.htlle.repository;
+
+import at.htlle.entity.PurchaseIntake;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PurchaseIntakeRepository extends JpaRepository<PurchaseIntake, String> {
+}
@@ -1,12 +1,56 @@
 package at.htlle.repository;
 
+import at.htlle.dto.AdminPurchaseSummary;
 import at.htlle.entity.Purchase;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
     Optional<Purchase> findByPurchaseNumber(String purchaseNumber);
 
     List<Purchase> findAllByOrderByPurchasedAtDesc();
+
+    @Query("select p.purchaseNumber from Purchase p where p.purchaseNumber in :purchaseNumbers")
+    List<String> findExistingPurchaseNumbers(@Param("purchaseNumbers") Collection<String> purchaseNumbers);
+
+    @Query("select new at.htlle.dto.AdminPurchaseSummary(p.id, p.purchasedAt, p.purchaseNumber, c.firstName, c.lastName, "
+            + "r.name, p.totalAmount, p.currency) "
+            + "from Purchase p join p.loyaltyAccount la join la.customer c join p.restaurant r "
+            + "where (:restaurantId is null or r.id = :restaurantId) "
+            + "and (:from is null or p.purchasedAt >= :from) "
+            + "and (:to is null or p.purchasedAt < :to) "
+            + "and (:beforePurchasedAt is null or p.purchasedAt < :beforePurchasedAt "
+            + "or (p.purchasedAt = :beforePurchasedAt and p.id < :beforeId)) "
+            + "order by p.purchasedAt desc, p.id desc")
+    List<AdminPurchaseSummary> findAdminPage(@Param("restaurantId") Long restaurantId,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to,
+                                             @Param("beforePurchasedAt") Instant beforePurchasedAt,
+                                             @Param("beforeId") Long beforeId,
+                                             Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new at.htlle.dto.AdminPurchaseSummary(p.id, p.purchasedAt, p.purchaseNumber, c.firstName, c.lastName, "
+            + "r.name, p.totalAmount, p.currency) "
+            + "from Purchase p join p.loyaltyAccount la join la.customer c join p.restaurant r "
+            + "where (:restaurantId is null or r.id = :restaurantId) "
+            + "and (:from is null or p.purchasedAt >= :from) "
+            + "and (:to is null or p.purchasedAt < :to) "
+            + "order by p.purchasedAt asc, p.id asc")
+    Stream<AdminPurchaseSummary> streamForExport(@Param("restaurantId") Long restaurantId,
+                                                 @Param("from") Instant from,
+                                                 @Param("to") Instant to);
 }
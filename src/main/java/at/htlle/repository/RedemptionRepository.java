@@ -1,14 +1,44 @@
 package at.htlle.repository;
 
+import at.htlle.dto.AdminRedemptionSummary;
 import at.htlle.entity.Redemption;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface RedemptionRepository extends JpaRepository<Redemption, Long> {
 
     List<Redemption> findByLoyaltyAccountIdOrderByRedeemedAtDesc(Long loyaltyAccountId);
 
-    List<Redemption> findAllByOrderByRedeemedAtDesc();
+    @Query(value = "select new at.htlle.dto.AdminRedemptionSummary(r.redemptionCode, c.email, rw.name, rs.name, "
+            + "r.pointsSpent, r.status, r.redeemedAt) "
+            + "from Redemption r join r.loyaltyAccount la join la.customer c join r.reward rw join r.restaurant rs "
+            + "where (:restaurantId is null or rs.id = :restaurantId) "
+            + "and (:status is null or r.status = :status) "
+            + "and (:from is null or r.redeemedAt >= :from) "
+            + "and (:to is null or r.redeemedAt < :to) "
+            + "order by r.redeemedAt desc, r.id desc",
+            countQuery = "select count(r) from Redemption r "
+                    + "where (:restaurantId is null or r.restaurant.id = :restaurantId) "
+                    + "and (:status is null or r.status = :status) "
+                    + "and (:from is null or r.redeemedAt >= :from) "
+                    + "and (:to is null or r.redeemedAt < :to)")
+    Page<AdminRedemptionSummary> findAdminSummaries(@Param("restaurantId") Long restaurantId,
+                                                    @Param("status") Redemption.Status status,
+                                                    @Param("from") Instant from,
+                                                    @Param("to") Instant to,
+                                                    Pageable pageable);
 
     boolean existsByRedemptionCode(String redemptionCode);
+
+    @Query("select max(r.redemptionCode) from Redemption r "
+            + "where r.redemptionCode between :lowest and :highest and length(r.redemptionCode) = :length")
+    Optional<String> findHighestRedemptionCode(@Param("lowest") String lowest,
+                                               @Param("highest") String highest,
+                                               @Param("length") int length);
 }
@@ -4,9 +4,13 @@ import at.htlle.entity.Restaurant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     Optional<Restaurant> findByCode(String code);
 
     List<Restaurant> findByActiveTrue();
+
+    @Query("select r from Restaurant r order by lower(r.name), r.id")
+    List<Restaurant> findAllOrderedByName();
 }
@@ -4,6 +4,7 @@ import at.htlle.entity.Reward;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface RewardRepository extends JpaRepository<Reward, Long> {
 
@@ -11,5 +12,10 @@ public interface RewardRepository extends JpaRepository<Reward, Long> {
 
     List<Reward> findByRestaurantIdAndActiveTrue(Long restaurantId);
 
+    List<Reward> findByActiveTrue();
+
     List<Reward> findByRestaurantId(Long restaurantId);
+
+    @Query("select r from Reward r join fetch r.restaurant order by lower(r.name), r.id")
+    List<Reward> findAllWithRestaurant();
 }
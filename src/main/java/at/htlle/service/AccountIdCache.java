@@ -0,0 +1,48 @@
+package at.htlle.service;
+
+import at.htlle.dto.CacheStatsResponse;
+import at.htlle.util.CacheLoads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AccountIdCache implements CacheStatsSource {
+
+    private final AsyncCache<String, Long> accountIds;
+
+    public AccountIdCache(@Value("${bonus.account-id-cache.ttl:PT30M}") Duration ttl,
+                          @Value("${bonus.account-id-cache.max-users:10000}") long maxUsers) {
+        this.accountIds = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Long get(String username, Function<String, Long> loader) {
+        return CacheLoads.getOrLoad(accountIds, username, loader);
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            accountIds.synchronous().invalidate(username);
+        }
+    }
+
+    @Override
+    public CacheStatsResponse cacheStats() {
+        CacheStats stats = accountIds.synchronous().stats();
+        return new CacheStatsResponse(
+                "accountIds",
+                accountIds.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
@@ -6,38 +6,76 @@ import at.htlle.entity.LoyaltyAccount;
 import at.htlle.entity.PointLedger;
 import at.htlle.repository.LoyaltyAccountRepository;
 import at.htlle.repository.PointLedgerRepository;
+import at.htlle.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
 @Service
 public class AccountQueryService {
 
+    public static final int DEFAULT_LEDGER_PAGE_SIZE = 50;
+    public static final int MAX_LEDGER_PAGE_SIZE = 200;
+
     private final LoyaltyAccountRepository loyaltyAccountRepository;
     private final PointLedgerRepository pointLedgerRepository;
+    private final AccountSummaryCache accountSummaryCache;
 
     public AccountQueryService(LoyaltyAccountRepository loyaltyAccountRepository,
-                               PointLedgerRepository pointLedgerRepository) {
+                               PointLedgerRepository pointLedgerRepository,
+                               AccountSummaryCache accountSummaryCache) {
         this.loyaltyAccountRepository = loyaltyAccountRepository;
         this.pointLedgerRepository = pointLedgerRepository;
+        this.accountSummaryCache = accountSummaryCache;
     }
 
+    // Without a page size the whole ledger is returned, as before paging was introduced.
     public AccountResponse getAccountResponse(Long accountId, boolean includeLedger) {
-        LoyaltyAccount account = loyaltyAccountRepository.findById(accountId)
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
-        return buildAccountResponse(account, includeLedger);
+        AccountResponse summary = getSummary(accountId);
+        return includeLedger ? withFullLedger(summary) : summary;
     }
 
-    public AccountResponse buildAccountResponse(LoyaltyAccount account, boolean includeLedger) {
-        List<LedgerEntryResponse> ledgerEntries = null;
-        if (includeLedger) {
-            ledgerEntries = pointLedgerRepository.findDetailedByAccountIdOrderByOccurredAtDesc(account.getId())
-                    .stream()
-                    .map(this::toLedgerEntryResponse)
-                    .collect(Collectors.toList());
+    public AccountResponse getAccountResponse(Long accountId, boolean includeLedger, String ledgerCursor, int ledgerLimit) {
+        AccountResponse summary = getSummary(accountId);
+        return includeLedger ? withLedger(summary, ledgerCursor, ledgerLimit) : summary;
+    }
+
+    private AccountResponse getSummary(Long accountId) {
+        AccountResponse summary;
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Inside a writing transaction unflushed changes are not visible to the cache yet.
+            summary = loadSummary(accountId);
+        } else {
+            summary = accountSummaryCache.get(accountId, this::loadSummary);
         }
+        return summary;
+    }
+
+    public AccountResponse buildAccountResponse(LoyaltyAccount account, boolean includeLedger) {
+        AccountResponse summary = toSummary(account);
+        return includeLedger ? withFullLedger(summary) : summary;
+    }
+
+    public AccountResponse buildAccountResponse(LoyaltyAccount account,
+                                                boolean includeLedger,
+                                                String ledgerCursor,
+                                                int ledgerLimit) {
+        AccountResponse summary = toSummary(account);
+        return includeLedger ? withLedger(summary, ledgerCursor, ledgerLimit) : summary;
+    }
+
+    private AccountResponse loadSummary(Long accountId) {
+        LoyaltyAccount account = loyaltyAccountRepository.findWithCustomerById(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        return toSummary(account);
+    }
 
+    private AccountResponse toSummary(LoyaltyAccount account) {
         return new AccountResponse(
                 account.getId(),
                 account.getAccountNumber(),
@@ -50,7 +88,54 @@ public class AccountQueryService {
                 account.getCurrentPoints(),
                 account.getCreatedAt(),
                 account.getUpdatedAt(),
-                ledgerEntries);
+                null,
+                null);
+    }
+
+    private AccountResponse withLedger(AccountResponse summary, String ledgerCursor, int ledgerLimit) {
+        if (ledgerLimit < 1 || ledgerLimit > MAX_LEDGER_PAGE_SIZE) {
+            throw new IllegalArgumentException("Ledger limit must be between 1 and " + MAX_LEDGER_PAGE_SIZE);
+        }
+        List<PointLedger> page = loadLedgerPage(summary.id(), ledgerCursor, ledgerLimit + 1);
+        String nextLedgerCursor = null;
+        if (page.size() > ledgerLimit) {
+            page = page.subList(0, ledgerLimit);
+            PointLedger last = page.get(page.size() - 1);
+            nextLedgerCursor = new KeysetCursor(last.getOccurredAt(), last.getId()).encode();
+        }
+        return withLedgerEntries(summary, page, nextLedgerCursor);
+    }
+
+    private AccountResponse withFullLedger(AccountResponse summary) {
+        return withLedgerEntries(summary, pointLedgerRepository.findLedgerPage(summary.id(), Limit.unlimited()), null);
+    }
+
+    private AccountResponse withLedgerEntries(AccountResponse summary, List<PointLedger> page, String nextLedgerCursor) {
+        List<LedgerEntryResponse> ledgerEntries = page.stream()
+                .map(this::toLedgerEntryResponse)
+                .collect(Collectors.toList());
+        return new AccountResponse(
+                summary.id(),
+                summary.accountNumber(),
+                summary.customerId(),
+                summary.firstName(),
+                summary.lastName(),
+                summary.restaurantId(),
+                summary.status(),
+                summary.tier(),
+                summary.currentPoints(),
+                summary.createdAt(),
+                summary.updatedAt(),
+                ledgerEntries,
+                nextLedgerCursor);
+    }
+
+    private List<PointLedger> loadLedgerPage(Long accountId, String ledgerCursor, int size) {
+        if (!StringUtils.hasText(ledgerCursor)) {
+            return pointLedgerRepository.findLedgerPage(accountId, Limit.of(size));
+        }
+        KeysetCursor cursor = KeysetCursor.decode(ledgerCursor, "ledger");
+        return pointLedgerRepository.findLedgerPageBefore(accountId, cursor.at(), cursor.id(), Limit.of(size));
     }
 
     private LedgerEntryResponse toLedgerEntryResponse(PointLedger entry) {
@@ -0,0 +1,51 @@
+package at.htlle.service;
+
+import at.htlle.dto.AccountResponse;
+import at.htlle.dto.CacheStatsResponse;
+import at.htlle.util.CacheLoads;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AccountSummaryCache implements CacheStatsSource {
+
+    private final AsyncCache<Long, AccountResponse> summaries;
+
+    public AccountSummaryCache(@Value("${bonus.account-cache.ttl:PT5M}") Duration ttl,
+                               @Value("${bonus.account-cache.max-accounts:10000}") long maxAccounts) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public AccountResponse get(Long accountId, Function<Long, AccountResponse> loader) {
+        return CacheLoads.getOrLoad(summaries, accountId, loader);
+    }
+
+    public void invalidate(Long accountId) {
+        summaries.synchronous().invalidate(accountId);
+    }
+
+    public void invalidateAll() {
+        summaries.synchronous().invalidateAll();
+    }
+
+    @Override
+    public CacheStatsResponse cacheStats() {
+        CacheStats stats = summaries.synchronous().stats();
+        return new CacheStatsResponse(
+                "accountSummaries",
+                summaries.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
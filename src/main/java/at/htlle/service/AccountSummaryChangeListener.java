@@ -0,0 +1,26 @@
+package at.htlle.service;
+
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.util.TransactionCallbacks;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccountSummaryChangeListener {
+
+    private final AccountSummaryCache accountSummaryCache;
+
+    public AccountSummaryChangeListener(AccountSummaryCache accountSummaryCache) {
+        this.accountSummaryCache = accountSummaryCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void accountChanged(LoyaltyAccount account) {
+        Long accountId = account.getId();
+        accountSummaryCache.invalidate(accountId);
+        // A reader may have cached the pre-commit row in the meantime; drop it again once the outcome is known.
+        TransactionCallbacks.afterCompletion(() -> accountSummaryCache.invalidate(accountId));
+    }
+}
@@ -0,0 +1,106 @@
+package at.htlle.service;
+
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.LoyaltyAccountRepository;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class AccountWriteExecutor {
+
+    public enum LockMode {
+        PESSIMISTIC,
+        OPTIMISTIC
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountWriteExecutor.class);
+
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockMode lockMode;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+
+    public AccountWriteExecutor(LoyaltyAccountRepository loyaltyAccountRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${bonus.account-lock.mode:pessimistic}") LockMode lockMode,
+                                @Value("${bonus.account-lock.max-attempts:5}") int maxAttempts,
+                                @Value("${bonus.account-lock.backoff:PT0.005S}") Duration backoff,
+                                @Value("${bonus.account-lock.max-backoff:PT0.2S}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("bonus.account-lock.max-attempts must be at least 1");
+        }
+        this.loyaltyAccountRepository = loyaltyAccountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockMode = lockMode;
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public LockMode lockMode() {
+        return lockMode;
+    }
+
+    public Optional<LoyaltyAccount> loadForUpdate(Long accountId) {
+        return lockMode == LockMode.PESSIMISTIC
+                ? loyaltyAccountRepository.lockById(accountId)
+                : loyaltyAccountRepository.findById(accountId);
+    }
+
+    // Takes the next count entry numbers of the account and returns the first one. In optimistic mode the
+    // account update is flushed right away, so a concurrent writer fails on the version check before any
+    // ledger row is inserted; the unique index on the entry number stays a safety net only. Callers change
+    // the balance first so the account is written once.
+    public long reserveLedgerEntryNos(LoyaltyAccount account, int count) {
+        long first = account.getLastLedgerEntryNo() + 1;
+        account.advanceLedgerEntryNo(count);
+        if (lockMode == LockMode.OPTIMISTIC) {
+            loyaltyAccountRepository.saveAndFlush(account);
+        }
+        return first;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (lockMode == LockMode.PESSIMISTIC || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(status -> action.get());
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw new IllegalStateException("Account was modified concurrently, please retry", ex);
+                }
+                logger.debug("Optimistic lock conflict on attempt {}, retrying", attempt);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry account update", ex);
+        }
+    }
+}
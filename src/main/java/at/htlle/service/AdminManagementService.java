@@ -6,6 +6,7 @@ import at.htlle.entity.PointLedger;
 import at.htlle.repository.CustomerRepository;
 import at.htlle.repository.LoyaltyAccountRepository;
 import at.htlle.repository.PointLedgerRepository;
+import at.htlle.util.TransactionCallbacks;
 import jakarta.transaction.Transactional;
 import java.time.Instant;
 import java.util.Optional;
@@ -20,13 +21,28 @@ public class AdminManagementService {
     private final CustomerRepository customerRepository;
     private final LoyaltyAccountRepository loyaltyAccountRepository;
     private final PointLedgerRepository pointLedgerRepository;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final AccountIdCache accountIdCache;
+    private final CustomerUserCache customerUserCache;
+    private final LedgerEventService ledgerEventService;
 
     public AdminManagementService(CustomerRepository customerRepository,
                                   LoyaltyAccountRepository loyaltyAccountRepository,
-                                  PointLedgerRepository pointLedgerRepository) {
+                                  PointLedgerRepository pointLedgerRepository,
+                                  AccountWriteExecutor accountWriteExecutor,
+                                  LoyaltyStatsService loyaltyStatsService,
+                                  AccountIdCache accountIdCache,
+                                  CustomerUserCache customerUserCache,
+                                  LedgerEventService ledgerEventService) {
         this.customerRepository = customerRepository;
         this.loyaltyAccountRepository = loyaltyAccountRepository;
         this.pointLedgerRepository = pointLedgerRepository;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.accountIdCache = accountIdCache;
+        this.customerUserCache = customerUserCache;
+        this.ledgerEventService = ledgerEventService;
     }
 
     @Transactional
@@ -41,6 +57,7 @@ public class AdminManagementService {
         }
         customer.setRole(role);
         customerRepository.save(customer);
+        invalidateLoginCaches(customer);
         return Optional.empty();
     }
 
@@ -56,6 +73,7 @@ public class AdminManagementService {
         }
         customer.setStatus(status);
         customerRepository.save(customer);
+        invalidateLoginCaches(customer);
         return Optional.empty();
     }
 
@@ -69,11 +87,12 @@ public class AdminManagementService {
         if (isFixedAdmin(customer)) {
             return Optional.of("Admin user cannot be deleted.");
         }
+        loyaltyStatsService.recordCustomerDeleted(customer.getLoyaltyAccounts());
         customerRepository.delete(customer);
+        invalidateLoginCaches(customer);
         return Optional.empty();
     }
 
-    @Transactional
     public Optional<String> adjustPoints(Long accountId, Long pointsDelta, String reason) {
         if (pointsDelta == null || pointsDelta == 0) {
             return Optional.of("Points delta must not be zero.");
@@ -81,7 +100,11 @@ public class AdminManagementService {
         if (!StringUtils.hasText(reason)) {
             return Optional.of("Reason is required.");
         }
-        LoyaltyAccount account = loyaltyAccountRepository.lockById(accountId)
+        return accountWriteExecutor.execute(() -> postAdjustment(accountId, pointsDelta, reason));
+    }
+
+    private Optional<String> postAdjustment(Long accountId, Long pointsDelta, String reason) {
+        LoyaltyAccount account = accountWriteExecutor.loadForUpdate(accountId)
                 .orElse(null);
         if (account == null) {
             return Optional.of("Loyalty account not found.");
@@ -92,18 +115,30 @@ public class AdminManagementService {
         }
         account.setCurrentPoints(newBalance);
         loyaltyAccountRepository.save(account);
+        loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), pointsDelta);
 
         PointLedger entry = new PointLedger();
         entry.setLoyaltyAccount(account);
+        entry.setEntryNo(accountWriteExecutor.reserveLedgerEntryNos(account, 1));
         entry.setEntryType(PointLedger.EntryType.ADJUST);
         entry.setPoints(pointsDelta);
         entry.setBalanceAfter(newBalance);
         entry.setOccurredAt(Instant.now());
         entry.setDescription(reason.trim());
-        pointLedgerRepository.save(entry);
+        ledgerEventService.record(pointLedgerRepository.save(entry));
         return Optional.empty();
     }
 
+    private void invalidateLoginCaches(Customer customer) {
+        String username = customer.getUsername();
+        accountIdCache.invalidate(username);
+        customerUserCache.removeUserFromCache(username);
+        TransactionCallbacks.afterCompletion(() -> {
+            accountIdCache.invalidate(username);
+            customerUserCache.removeUserFromCache(username);
+        });
+    }
+
     private boolean isFixedAdmin(Customer customer) {
         return customer != null
                 && customer.getUsername() != null
@@ -0,0 +1,103 @@
+package at.htlle.service;
+
+import at.htlle.dto.AdminPurchasePage;
+import at.htlle.dto.AdminPurchaseSummary;
+import at.htlle.repository.PurchaseRepository;
+import at.htlle.util.KeysetCursor;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+@Service
+public class AdminPurchaseService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int FLUSH_INTERVAL = 500;
+    private static final String CSV_HEADER =
+            "purchase_id,purchased_at,purchase_number,customer,restaurant,total_amount,currency\n";
+
+    private final PurchaseRepository purchaseRepository;
+
+    public AdminPurchaseService(PurchaseRepository purchaseRepository) {
+        this.purchaseRepository = purchaseRepository;
+    }
+
+    public AdminPurchasePage findPage(Long restaurantId, LocalDate from, LocalDate to, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        KeysetCursor before = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor, "purchase") : null;
+        List<AdminPurchaseSummary> rows = purchaseRepository.findAdminPage(
+                restaurantId,
+                startOf(from),
+                startOf(to != null ? to.plusDays(1) : null),
+                before != null ? before.at() : null,
+                before != null ? before.id() : null,
+                Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new AdminPurchasePage(rows, null);
+        }
+        List<AdminPurchaseSummary> page = rows.subList(0, size);
+        AdminPurchaseSummary last = page.get(size - 1);
+        return new AdminPurchasePage(page, new KeysetCursor(last.purchasedAt(), last.purchaseId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(Long restaurantId, LocalDate from, LocalDate to, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        long written = 0;
+        try (Stream<AdminPurchaseSummary> rows = purchaseRepository.streamForExport(
+                restaurantId, startOf(from), startOf(to != null ? to.plusDays(1) : null))) {
+            for (AdminPurchaseSummary row : (Iterable<AdminPurchaseSummary>) rows::iterator) {
+                writeRow(writer, row);
+                if (++written % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private void writeRow(Writer writer, AdminPurchaseSummary row) throws IOException {
+        writer.write(String.valueOf(row.purchaseId()));
+        writer.write(',');
+        writer.write(row.purchasedAt().toString());
+        writer.write(',');
+        writer.write(csv(row.purchaseNumber()));
+        writer.write(',');
+        writer.write(csv(row.customerFirstName() + " " + row.customerLastName()));
+        writer.write(',');
+        writer.write(csv(row.restaurantName()));
+        writer.write(',');
+        writer.write(row.totalAmount().toPlainString());
+        writer.write(',');
+        writer.write(csv(row.currency()));
+        writer.write('\n');
+    }
+
+    private String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Prevent spreadsheet apps from evaluating user-supplied text as a formula.
+        String text = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private Instant startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package at.htlle.service;
+
+import at.htlle.dto.AdminRestaurantOverview;
+import at.htlle.entity.PointRule;
+import at.htlle.repository.BranchRepository;
+import at.htlle.repository.PointRuleRepository;
+import at.htlle.repository.RestaurantRepository;
+import at.htlle.repository.RewardRepository;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class AdminRestaurantQueryService {
+
+    public static final String DEFAULT_POINT_RULE_NAME = "Default Points";
+
+    private final RestaurantRepository restaurantRepository;
+    private final BranchRepository branchRepository;
+    private final RewardRepository rewardRepository;
+    private final PointRuleRepository pointRuleRepository;
+
+    public AdminRestaurantQueryService(RestaurantRepository restaurantRepository,
+                                       BranchRepository branchRepository,
+                                       RewardRepository rewardRepository,
+                                       PointRuleRepository pointRuleRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.branchRepository = branchRepository;
+        this.rewardRepository = rewardRepository;
+        this.pointRuleRepository = pointRuleRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public AdminRestaurantOverview loadOverview() {
+        Map<Long, PointRule> defaultRules = new HashMap<>();
+        for (PointRule rule : pointRuleRepository.findByName(DEFAULT_POINT_RULE_NAME)) {
+            defaultRules.put(rule.getRestaurant().getId(), rule);
+        }
+        return new AdminRestaurantOverview(
+                restaurantRepository.findAllOrderedByName(),
+                branchRepository.findAllWithRestaurant(),
+                rewardRepository.findAllWithRestaurant(),
+                defaultRules);
+    }
+}
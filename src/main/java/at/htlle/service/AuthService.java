@@ -1,5 +1,6 @@
 package at.htlle.service;
 
+import at.htlle.dto.CustomerAccountId;
 import at.htlle.entity.Customer;
 import at.htlle.entity.LoyaltyAccount;
 import at.htlle.entity.Restaurant;
@@ -9,6 +10,7 @@ import at.htlle.repository.RestaurantRepository;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -20,15 +22,21 @@ public class AuthService {
     private final LoyaltyAccountRepository loyaltyAccountRepository;
     private final RestaurantRepository restaurantRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final AccountIdCache accountIdCache;
 
     public AuthService(CustomerRepository customerRepository,
                        LoyaltyAccountRepository loyaltyAccountRepository,
                        RestaurantRepository restaurantRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       LoyaltyStatsService loyaltyStatsService,
+                       AccountIdCache accountIdCache) {
         this.customerRepository = customerRepository;
         this.loyaltyAccountRepository = loyaltyAccountRepository;
         this.restaurantRepository = restaurantRepository;
         this.passwordEncoder = passwordEncoder;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.accountIdCache = accountIdCache;
     }
 
     public LoyaltyAccount register(String firstName,
@@ -53,6 +61,7 @@ public class AuthService {
         customer.setPassword(passwordEncoder.encode(password));
         customer.setRole(Customer.Role.USER);
         Customer savedCustomer = customerRepository.save(customer);
+        loyaltyStatsService.recordCustomerCreated();
 
         Restaurant restaurant = restaurantRepository.findByCode("DEMO")
                 .orElseThrow(() -> new EntityNotFoundException("Restaurant not found"));
@@ -69,16 +78,22 @@ public class AuthService {
         if (!StringUtils.hasText(username)) {
             return Optional.empty();
         }
-        Customer customer = customerRepository.findByUsername(username.trim())
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found for username"));
-        List<LoyaltyAccount> accounts = loyaltyAccountRepository.findByCustomerIdOrderByIdAsc(customer.getId());
-        if (accounts.isEmpty()) {
-            throw new IllegalStateException("No loyalty account found for customer " + customer.getId());
+        return Optional.of(accountIdCache.get(username.trim(), this::loadAccountId));
+    }
+
+    private Long loadAccountId(String username) {
+        List<CustomerAccountId> rows = customerRepository.findAccountIdsByUsername(username, Limit.of(2));
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Customer not found for username");
+        }
+        Long customerId = rows.get(0).customerId();
+        if (rows.get(0).accountId() == null) {
+            throw new IllegalStateException("No loyalty account found for customer " + customerId);
         }
-        if (accounts.size() > 1) {
-            throw new IllegalStateException("Multiple loyalty accounts found for customer " + customer.getId());
+        if (rows.size() > 1) {
+            throw new IllegalStateException("Multiple loyalty accounts found for customer " + customerId);
         }
-        return Optional.of(accounts.get(0).getId());
+        return rows.get(0).accountId();
     }
 
     private String buildAccountNumber(Long customerId) {
@@ -0,0 +1,147 @@
+package at.htlle.service;
+
+import at.htlle.dto.CheckpointRunResult;
+import at.htlle.dto.LedgerTail;
+import at.htlle.entity.BalanceCheckpoint;
+import at.htlle.entity.JobCheckpoint;
+import at.htlle.repository.BalanceCheckpointRepository;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.repository.PointLedgerRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BalanceCheckpointService {
+
+    public static final String JOB_NAME = "balance-checkpoint";
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final PointLedgerRepository pointLedgerRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration commitLag;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+                                    PointLedgerRepository pointLedgerRepository,
+                                    JobCheckpointRepository jobCheckpointRepository,
+                                    AccountWriteExecutor accountWriteExecutor,
+                                    @Value("${bonus.balance-checkpoint.enabled:true}") boolean enabled,
+                                    @Value("${bonus.balance-checkpoint.batch-size:500}") int batchSize,
+                                    @Value("${bonus.ledger.commit-lag:PT1M}") Duration commitLag) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("bonus.balance-checkpoint.batch-size must be at least 1");
+        }
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.pointLedgerRepository = pointLedgerRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.commitLag = commitLag;
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.balance-checkpoint.interval:PT10M}",
+            initialDelayString = "${bonus.balance-checkpoint.interval:PT10M}")
+    public void scheduledRun() {
+        if (enabled && !running.get()) {
+            CheckpointRunResult result = runNow();
+            logger.info("Balance checkpoints advanced for {} accounts with ledger entries since {}",
+                    result.accountsCheckpointed(), result.changesSince());
+        }
+    }
+
+    public CheckpointRunResult runNow() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Balance checkpointing is already running");
+        }
+        try {
+            return advanceChangedAccounts();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Ledger total of the account: the checkpointed balance plus whatever was booked after it.
+    // Must run inside the caller's transaction, after the account has been locked.
+    public long ledgerBalance(Long accountId) {
+        if (!enabled) {
+            return pointLedgerRepository.sumLedgerTail(accountId, 0L).points();
+        }
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(accountId)
+                .orElseGet(() -> new BalanceCheckpoint(accountId));
+        return checkpoint.getBalance()
+                + pointLedgerRepository.sumLedgerTail(accountId, checkpoint.getLastEntryNo()).points();
+    }
+
+    public boolean checkpoint(Long accountId) {
+        return accountWriteExecutor.execute(() -> {
+            // Entry numbers are taken from the locked account row, so they become visible in order: an entry
+            // that commits after this checkpoint always gets a number above the new last_entry_no.
+            if (accountWriteExecutor.loadForUpdate(accountId).isEmpty()) {
+                return false;
+            }
+            BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(accountId)
+                    .orElseGet(() -> new BalanceCheckpoint(accountId));
+            LedgerTail tail = pointLedgerRepository.sumLedgerTail(accountId, checkpoint.getLastEntryNo());
+            if (tail.isEmpty()) {
+                return false;
+            }
+            checkpoint.advance(tail.lastEntryNo(), tail.points());
+            balanceCheckpointRepository.save(checkpoint);
+            return true;
+        });
+    }
+
+    // Replaces the checkpoint with a total summed over the full history, e.g. by a reconciliation repair.
+    // Must run inside the caller's transaction, after the account has been locked.
+    public void reset(Long accountId, long lastEntryNo, long balance) {
+        if (!enabled || lastEntryNo == 0) {
+            return;
+        }
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(accountId)
+                .orElseGet(() -> new BalanceCheckpoint(accountId));
+        checkpoint.reset(lastEntryNo, balance);
+        balanceCheckpointRepository.save(checkpoint);
+    }
+
+    private CheckpointRunResult advanceChangedAccounts() {
+        JobCheckpoint job = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        Instant startedAt = Instant.now();
+        Instant since = job.getReferenceAt() == null ? Instant.EPOCH : job.getReferenceAt().minus(commitLag);
+
+        long advanced = 0;
+        long afterAccountId = 0;
+        while (true) {
+            List<Long> accountIds = pointLedgerRepository.findAccountIdsRecordedSince(
+                    since, afterAccountId, Limit.of(batchSize));
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            for (Long accountId : accountIds) {
+                if (checkpoint(accountId)) {
+                    advanced++;
+                }
+            }
+            afterAccountId = accountIds.get(accountIds.size() - 1);
+        }
+
+        job.setReferenceAt(startedAt);
+        job.setCompletedAt(Instant.now());
+        jobCheckpointRepository.save(job);
+        return new CheckpointRunResult(advanced, since);
+    }
+}
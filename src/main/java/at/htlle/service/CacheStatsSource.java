@@ -0,0 +1,8 @@
+package at.htlle.service;
+
+import at.htlle.dto.CacheStatsResponse;
+
+public interface CacheStatsSource {
+
+    CacheStatsResponse cacheStats();
+}
@@ -0,0 +1,26 @@
+package at.htlle.service;
+
+import at.htlle.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CatalogChangeListener {
+
+    // Resolved lazily: the catalog service depends on repositories that need the EntityManagerFactory being built.
+    private final ObjectProvider<CatalogService> catalogService;
+
+    public CatalogChangeListener(ObjectProvider<CatalogService> catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void catalogChanged(Object entity) {
+        TransactionCallbacks.afterCommit(() -> catalogService.getObject().refresh());
+    }
+}
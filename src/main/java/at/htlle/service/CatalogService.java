@@ -0,0 +1,80 @@
+package at.htlle.service;
+
+import at.htlle.dto.RestaurantSummary;
+import at.htlle.dto.RewardSummary;
+import at.htlle.repository.RestaurantRepository;
+import at.htlle.repository.RewardRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CatalogService {
+
+    private final RestaurantRepository restaurantRepository;
+    private final RewardRepository rewardRepository;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogService(RestaurantRepository restaurantRepository, RewardRepository rewardRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.rewardRepository = rewardRepository;
+    }
+
+    public List<RestaurantSummary> activeRestaurants() {
+        return snapshot().activeRestaurants();
+    }
+
+    public String activeRestaurantsEtag() {
+        return snapshot().activeRestaurantsEtag();
+    }
+
+    public Optional<RestaurantSummary> findRestaurant(Long restaurantId) {
+        return Optional.ofNullable(snapshot().restaurant(restaurantId));
+    }
+
+    public List<RewardSummary> activeRewards(Long restaurantId) {
+        return snapshot().activeRewards(restaurantId);
+    }
+
+    public String activeRewardsEtag(Long restaurantId) {
+        return snapshot().activeRewardsEtag(restaurantId);
+    }
+
+    public String currencyFor(Long restaurantId, String fallback) {
+        return findRestaurant(restaurantId)
+                .map(RestaurantSummary::defaultCurrency)
+                .filter(value -> value != null && !value.isBlank())
+                .orElse(fallback);
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.catalog.refresh-interval:PT5M}",
+            initialDelayString = "${bonus.catalog.refresh-interval:PT5M}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            snapshot = CatalogSnapshot.of(restaurantRepository.findAll(), rewardRepository.findByActiveTrue());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier.
+    private CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            refreshLock.lock();
+            try {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return current;
+    }
+}
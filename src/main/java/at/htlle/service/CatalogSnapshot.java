@@ -0,0 +1,102 @@
+package at.htlle.service;
+
+import at.htlle.dto.RestaurantSummary;
+import at.htlle.dto.RewardSummary;
+import at.htlle.entity.Restaurant;
+import at.htlle.entity.Reward;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+final class CatalogSnapshot {
+
+    private static final Comparator<RestaurantSummary> RESTAURANT_ORDER =
+            Comparator.comparing(RestaurantSummary::name, Comparator.nullsLast(String::compareToIgnoreCase));
+    private static final Comparator<RewardSummary> REWARD_ORDER =
+            Comparator.comparing(RewardSummary::name, Comparator.nullsLast(String::compareToIgnoreCase))
+                    .thenComparing(RewardSummary::id);
+
+    private final List<RestaurantSummary> activeRestaurants;
+    private final String activeRestaurantsEtag;
+    private final Map<Long, RestaurantSummary> restaurantsById;
+    private final Map<Long, List<RewardSummary>> activeRewardsByRestaurant;
+    private final Map<Long, String> activeRewardsEtags;
+
+    private CatalogSnapshot(List<RestaurantSummary> activeRestaurants,
+                            Map<Long, RestaurantSummary> restaurantsById,
+                            Map<Long, List<RewardSummary>> activeRewardsByRestaurant) {
+        this.activeRestaurants = activeRestaurants;
+        this.activeRestaurantsEtag = etag("restaurants", activeRestaurants);
+        this.restaurantsById = restaurantsById;
+        this.activeRewardsByRestaurant = activeRewardsByRestaurant;
+        Map<Long, String> etags = new HashMap<>();
+        restaurantsById.keySet().forEach(restaurantId -> etags.put(restaurantId,
+                etag("rewards-" + restaurantId, activeRewardsByRestaurant.getOrDefault(restaurantId, List.of()))));
+        this.activeRewardsEtags = Map.copyOf(etags);
+    }
+
+    static CatalogSnapshot of(Collection<Restaurant> restaurants, Collection<Reward> activeRewards) {
+        Map<Long, RestaurantSummary> byId = new HashMap<>();
+        List<RestaurantSummary> active = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            RestaurantSummary summary = new RestaurantSummary(
+                    restaurant.getId(),
+                    restaurant.getName(),
+                    restaurant.getCode(),
+                    restaurant.getDefaultCurrency());
+            byId.put(summary.id(), summary);
+            if (restaurant.isActive()) {
+                active.add(summary);
+            }
+        }
+        active.sort(RESTAURANT_ORDER);
+
+        Map<Long, List<RewardSummary>> rewards = new HashMap<>();
+        for (Reward reward : activeRewards) {
+            rewards.computeIfAbsent(reward.getRestaurant().getId(), id -> new ArrayList<>())
+                    .add(new RewardSummary(reward.getId(), reward.getName(), reward.getDescription(), reward.getCostPoints()));
+        }
+        Map<Long, List<RewardSummary>> sortedRewards = new HashMap<>();
+        rewards.forEach((restaurantId, list) -> {
+            list.sort(REWARD_ORDER);
+            sortedRewards.put(restaurantId, List.copyOf(list));
+        });
+        return new CatalogSnapshot(List.copyOf(active), Map.copyOf(byId), Map.copyOf(sortedRewards));
+    }
+
+    List<RestaurantSummary> activeRestaurants() {
+        return activeRestaurants;
+    }
+
+    String activeRestaurantsEtag() {
+        return activeRestaurantsEtag;
+    }
+
+    RestaurantSummary restaurant(Long restaurantId) {
+        return restaurantId != null ? restaurantsById.get(restaurantId) : null;
+    }
+
+    List<RewardSummary> activeRewards(Long restaurantId) {
+        return activeRewardsByRestaurant.getOrDefault(restaurantId, List.of());
+    }
+
+    String activeRewardsEtag(Long restaurantId) {
+        return activeRewardsEtags.get(restaurantId);
+    }
+
+    private static String etag(String prefix, List<?> items) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(items.toString().getBytes(StandardCharsets.UTF_8));
+            return '"' + prefix + "-" + HexFormat.of().formatHex(digest, 0, 8) + '"';
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Catalog fingerprint could not be computed", ex);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package at.htlle.service;
+
+import at.htlle.entity.PointRule;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public record CompiledPointRule(
+        PointRule rule,
+        PointRule.RuleType ruleType,
+        long basePoints,
+        long multiplierHundredths,
+        long thresholdCents,
+        boolean longArithmetic) {
+
+    public static CompiledPointRule of(PointRule rule) {
+        Objects.requireNonNull(rule, "rule");
+        BigDecimal multiplier = Objects.requireNonNullElse(rule.getMultiplier(), BigDecimal.ONE);
+        BigDecimal threshold = Objects.requireNonNullElse(rule.getAmountThreshold(), BigDecimal.ZERO);
+        Long multiplierHundredths = toHundredths(multiplier);
+        Long thresholdCents = toHundredths(threshold);
+        boolean longArithmetic = multiplierHundredths != null && thresholdCents != null;
+        return new CompiledPointRule(
+                rule,
+                rule.getRuleType(),
+                Objects.requireNonNullElse(rule.getBasePoints(), 0),
+                longArithmetic ? multiplierHundredths : 0,
+                longArithmetic ? thresholdCents : 0,
+                longArithmetic);
+    }
+
+    private static Long toHundredths(BigDecimal value) {
+        try {
+            return value.setScale(2).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+    }
+}
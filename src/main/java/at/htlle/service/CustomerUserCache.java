@@ -0,0 +1,58 @@
+package at.htlle.service;
+
+import at.htlle.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CustomerUserCache implements UserCache, CacheStatsSource {
+
+    private final Cache<String, UserDetails> users;
+
+    public CustomerUserCache(@Value("${bonus.user-cache.ttl:PT1M}") Duration ttl,
+                             @Value("${bonus.user-cache.max-users:10000}") long maxUsers) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Copies in and out: the authentication manager erases credentials on the principal it returns.
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user = users.getIfPresent(username);
+        return user != null ? User.withUserDetails(user).build() : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), User.withUserDetails(user).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username != null) {
+            users.invalidate(username);
+        }
+    }
+
+    @Override
+    public CacheStatsResponse cacheStats() {
+        CacheStats stats = users.stats();
+        return new CacheStatsResponse(
+                "users",
+                users.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
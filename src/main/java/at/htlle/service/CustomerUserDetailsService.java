@@ -6,23 +6,42 @@ import java.util.List;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomerUserDetailsService implements UserDetailsService {
+public class CustomerUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerUserCache customerUserCache;
 
-    public CustomerUserDetailsService(CustomerRepository customerRepository) {
+    public CustomerUserDetailsService(CustomerRepository customerRepository, CustomerUserCache customerUserCache) {
         this.customerRepository = customerRepository;
+        this.customerUserCache = customerUserCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Customer customer = customerRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return toUserDetails(customer);
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Customer customer = customerRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        customer.setPassword(newPassword);
+        customerRepository.save(customer);
+        customerUserCache.removeUserFromCache(customer.getUsername());
+        return toUserDetails(customer);
+    }
+
+    private UserDetails toUserDetails(Customer customer) {
         boolean enabled = customer.getStatus() == Customer.Status.ACTIVE;
         return new User(
                 customer.getUsername(),
@@ -0,0 +1,85 @@
+package at.htlle.service;
+
+import at.htlle.dto.LedgerEventMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "bonus.outbox.sink", havingValue = "file")
+public class FileLedgerEventSink implements LedgerEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    public FileLedgerEventSink(ObjectMapper objectMapper,
+                               @Value("${bonus.outbox.file:./data/ledger-events.ndjson}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public void publish(List<LedgerEventMessage> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (LedgerEventMessage event : events) {
+            try {
+                lines.writeBytes(objectMapper.writeValueAsBytes(event));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Ledger event " + event.eventId() + " could not be serialized", ex);
+            }
+            lines.write('\n');
+        }
+        lock.lock();
+        try {
+            FileChannel target = channel();
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            target.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append ledger events to " + file, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,275 @@
+package at.htlle.service;
+
+import at.htlle.dto.CacheStatsResponse;
+import at.htlle.entity.IdempotencyRecord;
+import at.htlle.repository.IdempotencyRecordRepository;
+import at.htlle.util.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+@Service
+public class IdempotencyService implements CacheStatsSource {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final TransactionTemplate reservationTransaction;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Cache<RecordKey, CompletedResponse> completedResponses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              AccountWriteExecutor accountWriteExecutor,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${bonus.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${bonus.idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout,
+                              @Value("${bonus.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+                              @Value("${bonus.idempotency.max-entries:10000}") long maxEntries) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        // Completed responses never change before they expire, so replays on this node skip the database.
+        this.completedResponses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(cacheTtl.compareTo(ttl) < 0 ? cacheTtl : ttl)
+                .recordStats()
+                .build();
+    }
+
+    public <T> ResponseEntity<T> execute(String scope,
+                                         String idempotencyKey,
+                                         Object request,
+                                         Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        return execute(scope, idempotencyKey, request, responseType, action, body -> {
+        });
+    }
+
+    // onCompleted runs once the response is stored and committed, for side effects that cannot be rolled back.
+    // If it fails, the stored response is discarded again, so a retry runs the action from scratch.
+    public <T> ResponseEntity<T> execute(String scope,
+                                         String idempotencyKey,
+                                         Object request,
+                                         Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action,
+                                         Consumer<? super T> onCompleted) {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            ResponseEntity<T> response = action.get();
+            onCompleted.accept(response.getBody());
+            return response;
+        }
+        String normalizedKey = idempotencyKey.trim();
+        if (normalizedKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        RecordKey recordKey = new RecordKey(scope, normalizedKey);
+        CompletedResponse cached = completedResponses.getIfPresent(recordKey);
+        if (cached != null && !cached.createdAt().isBefore(Instant.now().minus(ttl))) {
+            if (!cached.requestHash().equals(requestHash)) {
+                throw new IllegalStateException(HEADER + " was already used for a different request");
+            }
+            return replay(cached, responseType);
+        }
+
+        Reservation reservation = null;
+        for (int attempt = 1; reservation == null; attempt++) {
+            Instant reservedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository
+                    .findByScopeAndIdempotencyKey(scope, normalizedKey);
+            if (existing.isEmpty()) {
+                // Only a request racing for the same new key gets here twice; the unique constraint decides.
+                Optional<Long> reserved = reserve(scope, normalizedKey, requestHash, reservedAt);
+                if (reserved.isPresent()) {
+                    reservation = new Reservation(reserved.get(), reservedAt);
+                } else if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw new IllegalStateException("A request with this " + HEADER + " is already in progress");
+                }
+                continue;
+            }
+            IdempotencyRecord record = existing.get();
+            boolean expired = record.getCreatedAt().isBefore(reservedAt.minus(ttl));
+            if (!expired && !record.getRequestHash().equals(requestHash)) {
+                throw new IllegalStateException(HEADER + " was already used for a different request");
+            }
+            if (!expired && record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                CompletedResponse completed = new CompletedResponse(record.getRequestHash(),
+                        record.getResponseStatus(), record.getResponseBody(), record.getCreatedAt());
+                completedResponses.put(recordKey, completed);
+                return replay(completed, responseType);
+            }
+            // An expired record, or a reservation whose owner stopped before completing it, is taken over.
+            if (reclaim(record, requestHash, reservedAt)) {
+                reservation = new Reservation(record.getId(), reservedAt);
+            } else if (attempt >= MAX_RESERVE_ATTEMPTS
+                    || !record.getCreatedAt().isBefore(reservedAt.minus(inProgressTimeout))) {
+                throw new IllegalStateException("A request with this " + HEADER + " is already in progress");
+            }
+        }
+
+        Reservation owned = reservation;
+        ResponseEntity<T> response;
+        try {
+            // The response is stored in the same transaction as the booking, so either both commit or neither.
+            response = accountWriteExecutor.execute(() -> {
+                ResponseEntity<T> result = action.get();
+                CompletedResponse completed = new CompletedResponse(requestHash, result.getStatusCode().value(),
+                        toJson(result.getBody()), owned.reservedAt());
+                if (idempotencyRecordRepository.complete(owned.id(), owned.reservedAt(),
+                        completed.status(), completed.body()) == 0) {
+                    throw new IllegalStateException("A request with this " + HEADER + " is already in progress");
+                }
+                TransactionCallbacks.afterCommit(() -> completedResponses.put(recordKey, completed));
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            release(owned);
+            throw ex;
+        }
+        try {
+            onCompleted.accept(response.getBody());
+        } catch (RuntimeException ex) {
+            discard(owned, recordKey);
+            throw ex;
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.idempotency.cleanup-interval:PT1H}")
+    public void purgeExpired() {
+        int removed = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (removed > 0) {
+            logger.debug("Removed {} expired idempotency records", removed);
+        }
+    }
+
+    private Optional<Long> reserve(String scope, String idempotencyKey, String requestHash, Instant reservedAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScope(scope);
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        record.setCreatedAt(reservedAt);
+        try {
+            return Optional.of(reservationTransaction.execute(
+                    status -> idempotencyRecordRepository.saveAndFlush(record).getId()));
+        } catch (DataIntegrityViolationException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean reclaim(IdempotencyRecord record, String requestHash, Instant reservedAt) {
+        Integer reclaimed = reservationTransaction.execute(status -> idempotencyRecordRepository.reclaim(
+                record.getId(),
+                record.getCreatedAt(),
+                reservedAt.minus(inProgressTimeout),
+                reservedAt.minus(ttl),
+                requestHash,
+                reservedAt));
+        return reclaimed != null && reclaimed == 1;
+    }
+
+    private void release(Reservation reservation) {
+        try {
+            reservationTransaction.executeWithoutResult(
+                    status -> idempotencyRecordRepository.release(reservation.id(), reservation.reservedAt()));
+        } catch (RuntimeException ex) {
+            logger.warn("Idempotency reservation {} could not be released", reservation.id(), ex);
+        }
+    }
+
+    private void discard(Reservation reservation, RecordKey recordKey) {
+        completedResponses.invalidate(recordKey);
+        try {
+            reservationTransaction.executeWithoutResult(
+                    status -> idempotencyRecordRepository.discard(reservation.id(), reservation.reservedAt()));
+        } catch (RuntimeException ex) {
+            logger.warn("Idempotency record {} could not be discarded", reservation.id(), ex);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(CompletedResponse completed, Class<T> responseType) {
+        try {
+            T body = objectMapper.readValue(completed.body(), responseType);
+            return ResponseEntity.status(completed.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Request fingerprint could not be computed", ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response could not be stored for replay", ex);
+        }
+    }
+
+    @Override
+    public CacheStatsResponse cacheStats() {
+        CacheStats stats = completedResponses.stats();
+        return new CacheStatsResponse(
+                "idempotentResponses",
+                completedResponses.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private record RecordKey(String scope, String idempotencyKey) {
+    }
+
+    private record CompletedResponse(String requestHash, int status, String body, Instant createdAt) {
+    }
+
+    private record Reservation(Long id, Instant reservedAt) {
+    }
+}
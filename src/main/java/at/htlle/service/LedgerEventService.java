@@ -0,0 +1,159 @@
+package at.htlle.service;
+
+import at.htlle.dto.LedgerEventMessage;
+import at.htlle.dto.LedgerEventPage;
+import at.htlle.dto.LedgerEventRelayResult;
+import at.htlle.entity.JobCheckpoint;
+import at.htlle.entity.LedgerEvent;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.repository.LedgerEventRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class LedgerEventService {
+
+    public static final String JOB_NAME = "ledger-event-relay";
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEventService.class);
+
+    private final LedgerEventRepository ledgerEventRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final LedgerEventSink ledgerEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerEventService(LedgerEventRepository ledgerEventRepository,
+                              JobCheckpointRepository jobCheckpointRepository,
+                              LedgerEventSink ledgerEventSink,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bonus.outbox.enabled:true}") boolean enabled,
+                              @Value("${bonus.outbox.batch-size:500}") int batchSize,
+                              @Value("${bonus.outbox.retention:P30D}") Duration retention) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("bonus.outbox.batch-size must be at least 1");
+        }
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.ledgerEventSink = ledgerEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(PointLedger ledger) {
+        if (enabled) {
+            ledgerEventRepository.save(new LedgerEvent(ledger));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<PointLedger> ledgers) {
+        if (enabled) {
+            ledgerEventRepository.saveAll(ledgers.stream().map(LedgerEvent::new).toList());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.outbox.relay-interval:PT1S}",
+            initialDelayString = "${bonus.outbox.relay-interval:PT1S}")
+    public void scheduledRelay() {
+        if (enabled && !running.get()) {
+            LedgerEventRelayResult result = relay();
+            if (result.eventsPublished() > 0) {
+                logger.debug("Published {} ledger events up to position {}",
+                        result.eventsPublished(), result.lastPosition());
+            }
+        }
+    }
+
+    public LedgerEventRelayResult relay() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ledger event relay is already running");
+        }
+        try {
+            long published = 0;
+            while (true) {
+                RelayBatch batch = transactionTemplate.execute(status -> publishBatch());
+                published += batch.events();
+                if (batch.events() < batchSize) {
+                    return new LedgerEventRelayResult(published, batch.lastPosition());
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public LedgerEventPage feed(long after, int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("after must not be negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<LedgerEventMessage> events = ledgerEventRepository.findPublishedAfter(after, Limit.of(limit)).stream()
+                .map(LedgerEventMessage::of)
+                .toList();
+        long nextAfter = events.isEmpty() ? after : events.get(events.size() - 1).position();
+        return new LedgerEventPage(events, nextAfter);
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.outbox.cleanup-interval:PT1H}")
+    public void purgePublished() {
+        int removed = ledgerEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            logger.debug("Removed {} published ledger events", removed);
+        }
+    }
+
+    // Positions are handed out only while holding the relay checkpoint lock, so they follow the order in which
+    // events became visible: an event committed late by a slow transaction gets a later position instead of
+    // appearing behind a cursor a consumer already passed.
+    private RelayBatch publishBatch() {
+        JobCheckpoint checkpoint = jobCheckpointRepository.lockByJobName(JOB_NAME)
+                .orElseGet(() -> {
+                    JobCheckpoint created = new JobCheckpoint(JOB_NAME);
+                    created.setCursorId(0L);
+                    return jobCheckpointRepository.saveAndFlush(created);
+                });
+        long position = checkpoint.getCursorId() != null ? checkpoint.getCursorId() : 0L;
+        List<LedgerEvent> events = ledgerEventRepository.findUnpublished(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return new RelayBatch(0, position);
+        }
+        Instant publishedAt = Instant.now();
+        for (LedgerEvent event : events) {
+            event.publish(++position, publishedAt);
+        }
+        ledgerEventRepository.saveAll(events);
+        ledgerEventSink.publish(events.stream().map(LedgerEventMessage::of).toList());
+
+        checkpoint.setCursorId(position);
+        checkpoint.setCompletedAt(publishedAt);
+        jobCheckpointRepository.save(checkpoint);
+        return new RelayBatch(events.size(), position);
+    }
+
+    private record RelayBatch(int events, long lastPosition) {
+    }
+}
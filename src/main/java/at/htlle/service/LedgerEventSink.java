@@ -0,0 +1,12 @@
+package at.htlle.service;
+
+import at.htlle.dto.LedgerEventMessage;
+import java.util.List;
+
+public interface LedgerEventSink {
+
+    // Called inside the relay transaction with events in feed order. Throwing rolls the batch back and the relay
+    // retries it; a batch can also reach the sink and then fail to commit, so sinks see every event at least once
+    // and should skip event ids they already have (positions are assigned again on retry).
+    void publish(List<LedgerEventMessage> events);
+}
@@ -0,0 +1,7 @@
+package at.htlle.service;
+
+import at.htlle.dto.LedgerEventMessage;
+import java.util.List;
+
+public record LedgerEventsPublished(List<LedgerEventMessage> events) {
+}
@@ -0,0 +1,23 @@
+package at.htlle.service;
+
+import at.htlle.dto.LedgerEventMessage;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "bonus.outbox.sink", havingValue = "listener", matchIfMissing = true)
+public class ListenerLedgerEventSink implements LedgerEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ListenerLedgerEventSink(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void publish(List<LedgerEventMessage> events) {
+        applicationEventPublisher.publishEvent(new LedgerEventsPublished(events));
+    }
+}
@@ -1,5 +1,6 @@
 package at.htlle.service;
 
+import at.htlle.dto.LedgerTail;
 import at.htlle.dto.PurchaseRequest;
 import at.htlle.dto.RedemptionRequest;
 import at.htlle.entity.LoyaltyAccount;
@@ -18,25 +19,15 @@ import at.htlle.repository.RestaurantRepository;
 import at.htlle.repository.RewardRepository;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.security.SecureRandom;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import org.springframework.transaction.annotation.Transactional;
-
 @Service
 public class LoyaltyService {
 
-    private static final String REDEMPTION_CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int REDEMPTION_CODE_MIN_LENGTH = 8;
-    private static final int REDEMPTION_CODE_MAX_LENGTH = 12;
-    private static final int REDEMPTION_CODE_MAX_ATTEMPTS = 20;
-
     private final LoyaltyAccountRepository loyaltyAccountRepository;
     private final PurchaseRepository purchaseRepository;
     private final PointLedgerRepository pointLedgerRepository;
@@ -45,7 +36,12 @@ public class LoyaltyService {
     private final RestaurantRepository restaurantRepository;
     private final RedemptionRepository redemptionRepository;
     private final PointCalculator pointCalculator;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final PointRuleCache pointRuleCache;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final RedemptionCodeGenerator redemptionCodeGenerator;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final LedgerEventService ledgerEventService;
 
     public LoyaltyService(
             LoyaltyAccountRepository loyaltyAccountRepository,
@@ -55,7 +51,13 @@ public class LoyaltyService {
             RewardRepository rewardRepository,
             RestaurantRepository restaurantRepository,
             RedemptionRepository redemptionRepository,
-            PointCalculator pointCalculator) {
+            PointCalculator pointCalculator,
+            PointRuleCache pointRuleCache,
+            AccountWriteExecutor accountWriteExecutor,
+            RedemptionCodeGenerator redemptionCodeGenerator,
+            LoyaltyStatsService loyaltyStatsService,
+            BalanceCheckpointService balanceCheckpointService,
+            LedgerEventService ledgerEventService) {
         this.loyaltyAccountRepository = loyaltyAccountRepository;
         this.purchaseRepository = purchaseRepository;
         this.pointLedgerRepository = pointLedgerRepository;
@@ -64,12 +66,21 @@ public class LoyaltyService {
         this.restaurantRepository = restaurantRepository;
         this.redemptionRepository = redemptionRepository;
         this.pointCalculator = pointCalculator;
+        this.pointRuleCache = pointRuleCache;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.redemptionCodeGenerator = redemptionCodeGenerator;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.ledgerEventService = ledgerEventService;
     }
 
-    @Transactional
     public PointLedger recordPurchase(PurchaseRequest request) {
-        LoyaltyAccount account = loyaltyAccountRepository
-                .lockById(request.accountId())
+        return accountWriteExecutor.execute(() -> postPurchase(request));
+    }
+
+    private PointLedger postPurchase(PurchaseRequest request) {
+        LoyaltyAccount account = accountWriteExecutor
+                .loadForUpdate(request.accountId())
                 .orElseThrow(() -> new EntityNotFoundException("Account not found"));
 
         if (purchaseRepository.findByPurchaseNumber(request.purchaseNumber()).isPresent()) {
@@ -94,56 +105,40 @@ public class LoyaltyService {
 
         Purchase persisted = purchaseRepository.save(purchase);
 
-        PointRule appliedRule;
-        if (request.pointRuleId() != null) {
-            appliedRule = pointRuleRepository
-                    .findById(request.pointRuleId())
-                    .orElseThrow(() -> new EntityNotFoundException("Point rule not found"));
-            if (!appliedRule.getRestaurant().getId().equals(restaurant.getId())) {
-                throw new IllegalArgumentException("Point rule does not belong to restaurant");
-            }
-            if (!pointCalculator.isRuleActive(appliedRule, persisted.getPurchasedAt())) {
-                throw new IllegalStateException("Point rule is not active");
-            }
-        } else {
-            List<PointRule> candidates = pointRuleRepository.findActiveRulesForDate(
-                    restaurant.getId(),
-                    LocalDate.ofInstant(persisted.getPurchasedAt(), java.time.ZoneId.systemDefault()));
-            appliedRule = candidates.stream()
-                    .sorted(Comparator
-                            .comparing(PointRule::getValidFrom, Comparator.nullsLast(Comparator.naturalOrder()))
-                            .reversed()
-                            .thenComparing(PointRule::getId, Comparator.nullsLast(Comparator.reverseOrder())))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No active point rule found"));
-        }
+        CompiledPointRule appliedRule = resolvePointRule(request.pointRuleId(), restaurant, persisted.getPurchasedAt());
 
         long points = pointCalculator.calculatePoints(persisted.getTotalAmount(), appliedRule);
         if (points == 0) {
             throw new IllegalStateException("Calculated points is zero");
         }
         long newBalance = account.getCurrentPoints() + points;
+        account.setCurrentPoints(newBalance);
 
         PointLedger ledger = new PointLedger();
         ledger.setLoyaltyAccount(account);
+        ledger.setEntryNo(accountWriteExecutor.reserveLedgerEntryNos(account, 1));
         ledger.setEntryType(PointLedger.EntryType.EARN);
         ledger.setPoints(points);
         ledger.setBalanceAfter(newBalance);
         ledger.setOccurredAt(persisted.getPurchasedAt());
         ledger.setDescription(StringUtils.hasText(request.description()) ? request.description() : "Purchase points");
         ledger.setPurchase(persisted);
-        ledger.setPointRule(appliedRule);
-
-        account.setCurrentPoints(newBalance);
+        ledger.setPointRule(appliedRule.rule());
 
         loyaltyAccountRepository.save(account);
-        return pointLedgerRepository.save(ledger);
+        loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), points);
+        PointLedger persistedLedger = pointLedgerRepository.save(ledger);
+        ledgerEventService.record(persistedLedger);
+        return persistedLedger;
     }
 
-    @Transactional
     public Redemption redeemReward(RedemptionRequest request) {
-        LoyaltyAccount account = loyaltyAccountRepository
-                .lockById(request.accountId())
+        return accountWriteExecutor.execute(() -> postRedemption(request));
+    }
+
+    private Redemption postRedemption(RedemptionRequest request) {
+        LoyaltyAccount account = accountWriteExecutor
+                .loadForUpdate(request.accountId())
                 .orElseThrow(() -> new EntityNotFoundException("Account not found"));
 
         Reward reward = rewardRepository
@@ -174,16 +169,18 @@ public class LoyaltyService {
         }
 
         long newBalance = account.getCurrentPoints() - cost;
+        account.setCurrentPoints(newBalance);
         PointLedger ledger = new PointLedger();
         ledger.setLoyaltyAccount(account);
+        ledger.setEntryNo(accountWriteExecutor.reserveLedgerEntryNos(account, 1));
         ledger.setEntryType(PointLedger.EntryType.REDEEM);
         ledger.setPoints(-cost);
         ledger.setBalanceAfter(newBalance);
         ledger.setDescription(request.notes() != null ? request.notes() : "Reward redemption");
         ledger.setOccurredAt(Instant.now());
 
-        account.setCurrentPoints(newBalance);
         loyaltyAccountRepository.save(account);
+        loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), -cost);
         PointLedger persistedLedger = pointLedgerRepository.save(ledger);
 
         Redemption redemption = new Redemption();
@@ -195,42 +192,64 @@ public class LoyaltyService {
         redemption.setRedeemedAt(Instant.now());
         redemption.setPointsSpent(cost);
         redemption.setNotes(request.notes());
-        redemption.setRedemptionCode(generateUniqueRedemptionCode());
+        redemption.setRedemptionCode(redemptionCodeGenerator.nextCode());
 
         Redemption saved = redemptionRepository.save(redemption);
         persistedLedger.setRedemption(saved);
         pointLedgerRepository.save(persistedLedger);
+        ledgerEventService.record(persistedLedger);
         return saved;
     }
 
-    @Transactional
     public LoyaltyAccount synchronizeBalance(Long accountId) {
-        LoyaltyAccount account = loyaltyAccountRepository
-                .lockById(accountId)
-                .orElseThrow(() -> new IllegalArgumentException("Unknown account"));
-        long sum = pointLedgerRepository.sumPointsForAccount(account.getId());
-        account.setCurrentPoints(sum);
-        return loyaltyAccountRepository.save(account);
+        return accountWriteExecutor.execute(() -> {
+            LoyaltyAccount account = accountWriteExecutor
+                    .loadForUpdate(accountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown account"));
+            long sum = balanceCheckpointService.ledgerBalance(account.getId());
+            loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), sum - account.getCurrentPoints());
+            account.setCurrentPoints(sum);
+            return loyaltyAccountRepository.save(account);
+        });
     }
 
-    private String generateUniqueRedemptionCode() {
-        for (int attempt = 0; attempt < REDEMPTION_CODE_MAX_ATTEMPTS; attempt++) {
-            String code = generateRedemptionCode();
-            if (!redemptionRepository.existsByRedemptionCode(code)) {
-                return code;
+    // Applies a ledger total summed over the full history up to lastEntryNo plus whatever was booked since,
+    // without trusting the balance checkpoint. Returns whether the balance actually changed.
+    public boolean applyLedgerBalance(Long accountId, long ledgerPoints, long lastEntryNo) {
+        return accountWriteExecutor.execute(() -> {
+            LoyaltyAccount account = accountWriteExecutor
+                    .loadForUpdate(accountId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown account"));
+            LedgerTail tail = pointLedgerRepository.sumLedgerTail(accountId, lastEntryNo);
+            long sum = ledgerPoints + tail.points();
+            balanceCheckpointService.reset(accountId, tail.isEmpty() ? lastEntryNo : tail.lastEntryNo(), sum);
+            if (sum == account.getCurrentPoints()) {
+                return false;
             }
-        }
-        throw new IllegalStateException("Failed to generate unique redemption code");
+            loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), sum - account.getCurrentPoints());
+            account.setCurrentPoints(sum);
+            loyaltyAccountRepository.save(account);
+            return true;
+        });
     }
 
-    private String generateRedemptionCode() {
-        int length = REDEMPTION_CODE_MIN_LENGTH
-                + secureRandom.nextInt(REDEMPTION_CODE_MAX_LENGTH - REDEMPTION_CODE_MIN_LENGTH + 1);
-        StringBuilder builder = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            int index = secureRandom.nextInt(REDEMPTION_CODE_CHARS.length());
-            builder.append(REDEMPTION_CODE_CHARS.charAt(index));
+    CompiledPointRule resolvePointRule(Long pointRuleId, Restaurant restaurant, Instant purchasedAt) {
+        if (pointRuleId != null) {
+            CompiledPointRule compiled = pointRuleCache.findRule(restaurant.getId(), pointRuleId)
+                    .or(() -> pointRuleRepository.findById(pointRuleId).map(CompiledPointRule::of))
+                    .orElseThrow(() -> new EntityNotFoundException("Point rule not found"));
+            PointRule rule = compiled.rule();
+            if (!rule.getRestaurant().getId().equals(restaurant.getId())) {
+                throw new IllegalArgumentException("Point rule does not belong to restaurant");
+            }
+            if (!pointCalculator.isRuleActive(rule, purchasedAt)) {
+                throw new IllegalStateException("Point rule is not active");
+            }
+            return compiled;
         }
-        return builder.toString();
+        return pointRuleCache.findActiveRule(
+                        restaurant.getId(),
+                        LocalDate.ofInstant(purchasedAt, java.time.ZoneId.systemDefault()))
+                .orElseThrow(() -> new IllegalStateException("No active point rule found"));
     }
 }
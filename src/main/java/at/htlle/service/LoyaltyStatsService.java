@@ -0,0 +1,123 @@
+package at.htlle.service;
+
+import at.htlle.dto.LoyaltyStatsResponse;
+import at.htlle.dto.RestaurantPointsTotal;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.CustomerRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RestaurantRepository;
+import at.htlle.util.TransactionCallbacks;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoyaltyStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoyaltyStatsService.class);
+
+    private final CustomerRepository customerRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final LongAdder customerCount = new LongAdder();
+    private final LongAdder restaurantCount = new LongAdder();
+    private final LongAdder pointsInCirculation = new LongAdder();
+    private final ConcurrentMap<Long, LongAdder> pointsByRestaurant = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile Instant reconciledAt;
+
+    public LoyaltyStatsService(CustomerRepository customerRepository,
+                               RestaurantRepository restaurantRepository,
+                               LoyaltyAccountRepository loyaltyAccountRepository) {
+        this.customerRepository = customerRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.loyaltyAccountRepository = loyaltyAccountRepository;
+    }
+
+    public void recordPointsDelta(Long restaurantId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            pointsInCirculation.add(delta);
+            pointsByRestaurant.computeIfAbsent(restaurantId, id -> new LongAdder()).add(delta);
+        });
+    }
+
+    public void recordCustomerCreated() {
+        TransactionCallbacks.afterCommit(customerCount::increment);
+    }
+
+    public void recordCustomerDeleted(Collection<LoyaltyAccount> accounts) {
+        for (LoyaltyAccount account : accounts) {
+            recordPointsDelta(account.getRestaurant().getId(), -account.getCurrentPoints());
+        }
+        TransactionCallbacks.afterCommit(customerCount::decrement);
+    }
+
+    public void recordRestaurantCreated() {
+        TransactionCallbacks.afterCommit(restaurantCount::increment);
+    }
+
+    public LoyaltyStatsResponse snapshot() {
+        if (reconciledAt == null) {
+            reconcile();
+        }
+        Map<Long, Long> byRestaurant = new TreeMap<>();
+        pointsByRestaurant.forEach((restaurantId, points) -> byRestaurant.put(restaurantId, points.sum()));
+        return new LoyaltyStatsResponse(
+                customerCount.sum(),
+                restaurantCount.sum(),
+                pointsInCirculation.sum(),
+                byRestaurant,
+                reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bonus.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${bonus.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            // Writes committed between the aggregate queries and the correction below are counted twice or not at all;
+            // the next run corrects that, so the counters are exact only up to one reconcile interval.
+            long customers = customerRepository.count();
+            long restaurants = restaurantRepository.count();
+            Map<Long, Long> actual = new TreeMap<>();
+            for (RestaurantPointsTotal total : loyaltyAccountRepository.sumCurrentPointsByRestaurant()) {
+                actual.put(total.restaurantId(), total.points());
+            }
+
+            long drift = correct(customerCount, customers)
+                    + correct(restaurantCount, restaurants)
+                    + correct(pointsInCirculation, actual.values().stream().mapToLong(Long::longValue).sum());
+            pointsByRestaurant.keySet().removeIf(restaurantId -> !actual.containsKey(restaurantId));
+            for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+                drift += correct(pointsByRestaurant.computeIfAbsent(entry.getKey(), id -> new LongAdder()), entry.getValue());
+            }
+            if (drift != 0 && reconciledAt != null) {
+                logger.info("Loyalty stats reconciled with a total drift of {}", drift);
+            }
+            reconciledAt = Instant.now();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private long correct(LongAdder counter, long actual) {
+        long delta = actual - counter.sum();
+        counter.add(delta);
+        return Math.abs(delta);
+    }
+}
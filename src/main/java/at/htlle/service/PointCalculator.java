@@ -12,6 +12,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class PointCalculator {
 
+    // Amounts with at most 16 integer digits keep cents * 100 inside the long range.
+    private static final int MAX_LONG_AMOUNT_DIGITS = 16;
+
     public long calculatePoints(BigDecimal amount, PointRule rule) {
         Objects.requireNonNull(amount, "amount");
         BigDecimal normalizedAmount = amount.setScale(2, RoundingMode.DOWN);
@@ -27,6 +30,29 @@ public class PointCalculator {
         return pointsDecimal.setScale(0, RoundingMode.DOWN).longValue();
     }
 
+    public long calculatePoints(BigDecimal amount, CompiledPointRule rule) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(rule, "rule");
+        if (rule.ruleType() == PointRule.RuleType.FIXED) {
+            return rule.basePoints();
+        }
+        if (!rule.longArithmetic() || amount.precision() - amount.scale() > MAX_LONG_AMOUNT_DIGITS) {
+            return calculatePoints(amount, rule.rule());
+        }
+
+        long units = amount.movePointRight(2).longValue();
+        if (rule.thresholdCents() > 0) {
+            if (overflows(units, 100)) {
+                return calculatePoints(amount, rule.rule());
+            }
+            units = units * 100 / rule.thresholdCents();
+        }
+        if (overflows(units, rule.multiplierHundredths())) {
+            return calculatePoints(amount, rule.rule());
+        }
+        return units * rule.multiplierHundredths() / 10_000;
+    }
+
     public boolean isRuleActive(PointRule rule, Instant purchasedAt) {
         Objects.requireNonNull(rule, "rule");
         if (!rule.isActive()) {
@@ -51,6 +77,12 @@ public class PointCalculator {
         return units.multiply(multiplier);
     }
 
+    private static boolean overflows(long left, long right) {
+        long high = Math.multiplyHigh(left, right);
+        long low = left * right;
+        return high != (low >> 63);
+    }
+
     private LocalDate toReferenceDate(Instant purchasedAt) {
         Instant reference = purchasedAt != null ? purchasedAt : Instant.now();
         return reference.atZone(ZoneId.systemDefault()).toLocalDate();
@@ -0,0 +1,233 @@
+package at.htlle.service;
+
+import at.htlle.dto.AccountExpiryTotals;
+import at.htlle.dto.ExpiryRunResult;
+import at.htlle.entity.JobCheckpoint;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointLedgerRepository;
+import at.htlle.util.WorkerPools;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PointExpiryService {
+
+    public static final String JOB_NAME = "point-expiry";
+
+    private static final Logger logger = LoggerFactory.getLogger(PointExpiryService.class);
+
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final PointLedgerRepository pointLedgerRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final LedgerEventService ledgerEventService;
+    private final boolean enabled;
+    private final Duration validity;
+    private final int chunkSize;
+    private final int workers;
+    private final Duration pagePause;
+    private final ExecutorService workerPool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PointExpiryService(LoyaltyAccountRepository loyaltyAccountRepository,
+                              PointLedgerRepository pointLedgerRepository,
+                              JobCheckpointRepository jobCheckpointRepository,
+                              AccountWriteExecutor accountWriteExecutor,
+                              LoyaltyStatsService loyaltyStatsService,
+                              LedgerEventService ledgerEventService,
+                              @Value("${bonus.expiry.enabled:true}") boolean enabled,
+                              @Value("${bonus.expiry.validity:P365D}") Duration validity,
+                              @Value("${bonus.expiry.chunk-size:100}") int chunkSize,
+                              @Value("${bonus.expiry.workers:2}") int workers,
+                              @Value("${bonus.expiry.page-pause:PT0.2S}") Duration pagePause,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (chunkSize < 1 || workers < 1) {
+            throw new IllegalArgumentException("bonus.expiry.chunk-size and bonus.expiry.workers must be at least 1");
+        }
+        this.loyaltyAccountRepository = loyaltyAccountRepository;
+        this.pointLedgerRepository = pointLedgerRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.ledgerEventService = ledgerEventService;
+        this.enabled = enabled;
+        this.validity = validity;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.pagePause = pagePause;
+        this.workerPool = WorkerPools.fixed("point-expiry-", workers, virtualThreads);
+    }
+
+    @Scheduled(cron = "${bonus.expiry.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        ExpiryRunResult result = runNow();
+        logger.info("Point expiry finished: {} accounts scanned, {} points expired on {} accounts",
+                result.accountsScanned(), result.pointsExpired(), result.accountsExpired());
+    }
+
+    public ExpiryRunResult runNow() {
+        return expire(Instant.now().minus(validity));
+    }
+
+    public ExpiryRunResult expire(Instant cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Point expiry is already running");
+        }
+        try {
+            return runFromCheckpoint(cutoff);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    private ExpiryRunResult runFromCheckpoint(Instant requestedCutoff) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        if (checkpoint.isInProgress()) {
+            logger.info("Resuming point expiry after account {} with cutoff {}",
+                    checkpoint.getCursorId(), checkpoint.getReferenceAt());
+        } else {
+            checkpoint.setCursorId(0L);
+            checkpoint.setReferenceAt(requestedCutoff);
+            checkpoint.setCompletedAt(null);
+            checkpoint = jobCheckpointRepository.save(checkpoint);
+        }
+        Instant cutoff = checkpoint.getReferenceAt();
+
+        long scanned = 0;
+        long expiredAccounts = 0;
+        long expiredPoints = 0;
+        long afterId = checkpoint.getCursorId();
+        while (true) {
+            List<Long> accountIds = loyaltyAccountRepository.findIdsAfter(afterId, Limit.of(chunkSize * workers));
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            List<Future<ExpiryRunResult>> chunks = new ArrayList<>();
+            for (int from = 0; from < accountIds.size(); from += chunkSize) {
+                List<Long> chunk = accountIds.subList(from, Math.min(from + chunkSize, accountIds.size()));
+                chunks.add(workerPool.submit(() -> expireChunk(chunk, cutoff)));
+            }
+            for (Future<ExpiryRunResult> chunk : chunks) {
+                ExpiryRunResult result = await(chunk, afterId);
+                scanned += result.accountsScanned();
+                expiredAccounts += result.accountsExpired();
+                expiredPoints += result.pointsExpired();
+            }
+            // Only whole pages are checkpointed; a restart repeats at most one page, which is a no-op.
+            afterId = accountIds.get(accountIds.size() - 1);
+            checkpoint.setCursorId(afterId);
+            checkpoint = jobCheckpointRepository.save(checkpoint);
+            pause();
+        }
+
+        checkpoint.setCursorId(null);
+        checkpoint.setCompletedAt(Instant.now());
+        jobCheckpointRepository.save(checkpoint);
+        return new ExpiryRunResult(cutoff, scanned, expiredAccounts, expiredPoints);
+    }
+
+    private ExpiryRunResult expireChunk(List<Long> accountIds, Instant cutoff) {
+        List<Long> candidates = pointLedgerRepository.sumExpiryTotals(accountIds, cutoff).stream()
+                .filter(totals -> totals.expiringPoints() > 0)
+                .map(AccountExpiryTotals::accountId)
+                .sorted()
+                .toList();
+        if (candidates.isEmpty()) {
+            return new ExpiryRunResult(cutoff, accountIds.size(), 0, 0);
+        }
+        // One short transaction per account, so a worker holds a single account lock at a time and an
+        // optimistic conflict retries only that account.
+        long accounts = 0;
+        long points = 0;
+        for (Long accountId : candidates) {
+            long expiredPoints = accountWriteExecutor.execute(() -> expireAccount(accountId, cutoff));
+            if (expiredPoints > 0) {
+                accounts++;
+                points += expiredPoints;
+            }
+        }
+        return new ExpiryRunResult(cutoff, accountIds.size(), accounts, points);
+    }
+
+    // Debits consume the oldest credits first, so whatever was credited before the cutoff and not yet
+    // covered by debits (redemptions, negative adjustments, earlier expiries) is what lapses now.
+    private long expireAccount(Long accountId, Instant cutoff) {
+        LoyaltyAccount account = accountWriteExecutor.loadForUpdate(accountId).orElse(null);
+        if (account == null) {
+            return 0;
+        }
+        long expiring = pointLedgerRepository.sumExpiryTotals(List.of(accountId), cutoff).stream()
+                .mapToLong(AccountExpiryTotals::expiringPoints)
+                .sum();
+        expiring = Math.min(expiring, account.getCurrentPoints());
+        if (expiring <= 0) {
+            return 0;
+        }
+        long newBalance = account.getCurrentPoints() - expiring;
+        account.setCurrentPoints(newBalance);
+        loyaltyAccountRepository.save(account);
+        loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), -expiring);
+
+        PointLedger entry = new PointLedger();
+        entry.setLoyaltyAccount(account);
+        entry.setEntryNo(accountWriteExecutor.reserveLedgerEntryNos(account, 1));
+        entry.setEntryType(PointLedger.EntryType.EXPIRE);
+        entry.setPoints(-expiring);
+        entry.setBalanceAfter(newBalance);
+        entry.setOccurredAt(Instant.now());
+        entry.setDescription("Points expired");
+        ledgerEventService.record(pointLedgerRepository.save(entry));
+        return expiring;
+    }
+
+    private ExpiryRunResult await(Future<ExpiryRunResult> chunk, long afterId) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Point expiry was interrupted after account " + afterId, ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Point expiry failed after account " + afterId
+                    + ", next run resumes from there", ex.getCause());
+        }
+    }
+
+    private void pause() {
+        if (pagePause.isZero() || pagePause.isNegative()) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pagePause.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Point expiry was interrupted", ex);
+        }
+    }
+}
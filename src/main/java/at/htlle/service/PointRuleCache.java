@@ -0,0 +1,63 @@
+package at.htlle.service;
+
+import at.htlle.dto.CacheStatsResponse;
+import at.htlle.repository.PointRuleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PointRuleCache implements CacheStatsSource {
+
+    private final PointRuleRepository pointRuleRepository;
+    private final Cache<Long, PointRuleTimeline> timelines;
+
+    public PointRuleCache(PointRuleRepository pointRuleRepository,
+                          @Value("${bonus.point-rule-cache.ttl:PT10M}") Duration ttl,
+                          @Value("${bonus.point-rule-cache.max-restaurants:1000}") long maxRestaurants) {
+        this.pointRuleRepository = pointRuleRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxRestaurants)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CompiledPointRule> findRule(Long restaurantId, Long pointRuleId) {
+        return timeline(restaurantId).ruleById(pointRuleId);
+    }
+
+    public Optional<CompiledPointRule> findActiveRule(Long restaurantId, LocalDate referenceDate) {
+        return timeline(restaurantId).activeRuleFor(referenceDate);
+    }
+
+    public void invalidate(Long restaurantId) {
+        timelines.invalidate(restaurantId);
+    }
+
+    public void invalidateAll() {
+        timelines.invalidateAll();
+    }
+
+    @Override
+    public CacheStatsResponse cacheStats() {
+        CacheStats stats = timelines.stats();
+        return new CacheStatsResponse(
+                "pointRules",
+                timelines.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private PointRuleTimeline timeline(Long restaurantId) {
+        return timelines.get(restaurantId,
+                id -> PointRuleTimeline.of(pointRuleRepository.findByRestaurantId(id)));
+    }
+}
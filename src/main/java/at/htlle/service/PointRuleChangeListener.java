@@ -0,0 +1,35 @@
+package at.htlle.service;
+
+import at.htlle.entity.PointRule;
+import at.htlle.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PointRuleChangeListener {
+
+    // Resolved lazily: Hibernate creates this listener while the EntityManagerFactory the cache depends on is still being built.
+    private final ObjectProvider<PointRuleCache> pointRuleCache;
+
+    public PointRuleChangeListener(ObjectProvider<PointRuleCache> pointRuleCache) {
+        this.pointRuleCache = pointRuleCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void ruleChanged(PointRule rule) {
+        PointRuleCache cache = pointRuleCache.getObject();
+        if (rule.getRestaurant() == null) {
+            cache.invalidateAll();
+            return;
+        }
+        Long restaurantId = rule.getRestaurant().getId();
+        cache.invalidate(restaurantId);
+        // Also drop the timeline once the transaction ends so no reader keeps a rolled-back or pre-commit view.
+        TransactionCallbacks.afterCompletion(() -> cache.invalidate(restaurantId));
+    }
+}
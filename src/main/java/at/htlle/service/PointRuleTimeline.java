@@ -0,0 +1,80 @@
+package at.htlle.service;
+
+import at.htlle.entity.PointRule;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class PointRuleTimeline {
+
+    static final Comparator<PointRule> PRECEDENCE = Comparator
+            .comparing(PointRule::getValidFrom, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .reversed()
+            .thenComparing(PointRule::getId, Comparator.nullsLast(Comparator.<Long>reverseOrder()));
+
+    private final Map<Long, CompiledPointRule> rulesById;
+    // Interval i covers [boundaries[i - 1], boundaries[i]) in epoch days; winners[i] is the rule applied there.
+    private final long[] boundaries;
+    private final CompiledPointRule[] winners;
+
+    private PointRuleTimeline(Map<Long, CompiledPointRule> rulesById, long[] boundaries, CompiledPointRule[] winners) {
+        this.rulesById = rulesById;
+        this.boundaries = boundaries;
+        this.winners = winners;
+    }
+
+    static PointRuleTimeline of(Collection<PointRule> rules) {
+        Map<Long, CompiledPointRule> rulesById = rules.stream()
+                .collect(Collectors.toUnmodifiableMap(PointRule::getId, CompiledPointRule::of));
+        List<PointRule> activeRules = rules.stream()
+                .filter(PointRule::isActive)
+                .toList();
+
+        long[] boundaries = activeRules.stream()
+                .flatMap(rule -> Stream.of(
+                        rule.getValidFrom() != null ? rule.getValidFrom().toEpochDay() : null,
+                        rule.getValidUntil() != null ? rule.getValidUntil().toEpochDay() + 1 : null))
+                .filter(day -> day != null)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        CompiledPointRule[] winners = new CompiledPointRule[boundaries.length + 1];
+        for (int interval = 0; interval < winners.length; interval++) {
+            long start = interval == 0 ? Long.MIN_VALUE : boundaries[interval - 1];
+            winners[interval] = activeRules.stream()
+                    .filter(rule -> covers(rule, start))
+                    .min(PRECEDENCE)
+                    .map(rule -> rulesById.get(rule.getId()))
+                    .orElse(null);
+        }
+        return new PointRuleTimeline(rulesById, boundaries, winners);
+    }
+
+    Optional<CompiledPointRule> ruleById(Long pointRuleId) {
+        return Optional.ofNullable(rulesById.get(pointRuleId));
+    }
+
+    Optional<CompiledPointRule> activeRuleFor(LocalDate referenceDate) {
+        int position = Arrays.binarySearch(boundaries, referenceDate.toEpochDay());
+        int interval = position >= 0 ? position + 1 : -position - 1;
+        return Optional.ofNullable(winners[interval]);
+    }
+
+    int size() {
+        return rulesById.size();
+    }
+
+    private static boolean covers(PointRule rule, long day) {
+        long from = rule.getValidFrom() != null ? rule.getValidFrom().toEpochDay() : Long.MIN_VALUE;
+        long until = rule.getValidUntil() != null ? rule.getValidUntil().toEpochDay() : Long.MAX_VALUE;
+        return from <= day && day <= until;
+    }
+}
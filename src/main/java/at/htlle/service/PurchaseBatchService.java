@@ -0,0 +1,286 @@
+package at.htlle.service;
+
+import at.htlle.dto.PurchaseBatchItemResult;
+import at.htlle.dto.PurchaseBatchResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.dto.PurchaseResponse;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.entity.Purchase;
+import at.htlle.entity.Restaurant;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointLedgerRepository;
+import at.htlle.repository.PointRuleRepository;
+import at.htlle.repository.PurchaseRepository;
+import at.htlle.repository.RestaurantRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+public class PurchaseBatchService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final LoyaltyService loyaltyService;
+    private final LoyaltyAccountRepository loyaltyAccountRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final PointLedgerRepository pointLedgerRepository;
+    private final PointRuleRepository pointRuleRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final PointCalculator pointCalculator;
+    private final AccountWriteExecutor accountWriteExecutor;
+    private final LoyaltyStatsService loyaltyStatsService;
+    private final LedgerEventService ledgerEventService;
+    private final Validator validator;
+
+    public PurchaseBatchService(LoyaltyService loyaltyService,
+                                LoyaltyAccountRepository loyaltyAccountRepository,
+                                PurchaseRepository purchaseRepository,
+                                PointLedgerRepository pointLedgerRepository,
+                                PointRuleRepository pointRuleRepository,
+                                RestaurantRepository restaurantRepository,
+                                PointCalculator pointCalculator,
+                                AccountWriteExecutor accountWriteExecutor,
+                                LoyaltyStatsService loyaltyStatsService,
+                                LedgerEventService ledgerEventService,
+                                Validator validator) {
+        this.loyaltyService = loyaltyService;
+        this.loyaltyAccountRepository = loyaltyAccountRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.pointLedgerRepository = pointLedgerRepository;
+        this.pointRuleRepository = pointRuleRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.pointCalculator = pointCalculator;
+        this.accountWriteExecutor = accountWriteExecutor;
+        this.loyaltyStatsService = loyaltyStatsService;
+        this.ledgerEventService = ledgerEventService;
+        this.validator = validator;
+    }
+
+    public PurchaseBatchResponse recordPurchases(List<PurchaseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one purchase");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " purchases");
+        }
+
+        PurchaseBatchItemResult[] results = new PurchaseBatchItemResult[requests.size()];
+        Set<String> existingNumbers = new HashSet<>(purchaseRepository.findExistingPurchaseNumbers(
+                requests.stream()
+                        .filter(Objects::nonNull)
+                        .map(PurchaseRequest::purchaseNumber)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())));
+        Set<String> seenNumbers = new HashSet<>();
+        Map<Long, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            PurchaseRequest request = requests.get(index);
+            String error = validate(request);
+            if (error == null && !seenNumbers.add(request.purchaseNumber())) {
+                error = "Duplicate purchase number in batch";
+            }
+            if (error == null && existingNumbers.contains(request.purchaseNumber())) {
+                error = "Purchase number already exists";
+            }
+            if (error != null) {
+                results[index] = failed(index, request, error);
+                continue;
+            }
+            indexesByAccount.computeIfAbsent(request.accountId(), key -> new ArrayList<>()).add(index);
+        }
+
+        // Only ids and compiled rules are kept across the per-account transactions; entities are
+        // re-attached as references inside each transaction.
+        Set<Long> restaurants = new HashSet<>();
+        restaurantRepository.findAllById(indexesByAccount.values().stream()
+                        .flatMap(List::stream)
+                        .map(index -> requests.get(index).restaurantId())
+                        .collect(Collectors.toSet()))
+                .forEach(restaurant -> restaurants.add(restaurant.getId()));
+        Map<RuleKey, CompiledPointRule> rules = new HashMap<>();
+
+        indexesByAccount.forEach((accountId, indexes) ->
+                postAccountGroup(accountId, indexes, requests, results, restaurants, rules));
+
+        int created = (int) Arrays.stream(results)
+                .filter(result -> result.status() == PurchaseBatchItemResult.Status.CREATED)
+                .count();
+        return new PurchaseBatchResponse(created, results.length - created, List.of(results));
+    }
+
+    private void postAccountGroup(Long accountId,
+                                  List<Integer> indexes,
+                                  List<PurchaseRequest> requests,
+                                  PurchaseBatchItemResult[] results,
+                                  Set<Long> restaurants,
+                                  Map<RuleKey, CompiledPointRule> rules) {
+        Map<Integer, PurchaseResponse> posted;
+        try {
+            posted = accountWriteExecutor.execute(() -> {
+                LoyaltyAccount account = accountWriteExecutor
+                        .loadForUpdate(accountId)
+                        .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+
+                long openingBalance = account.getCurrentPoints();
+                long balance = openingBalance;
+                Map<Integer, PointLedger> ledgersByIndex = new LinkedHashMap<>();
+                for (Integer index : indexes) {
+                    PurchaseRequest request = requests.get(index);
+                    try {
+                        PointLedger ledger = preparePurchase(account, request, balance, restaurants, rules);
+                        balance = ledger.getBalanceAfter();
+                        ledgersByIndex.put(index, ledger);
+                    } catch (RuntimeException ex) {
+                        results[index] = failed(index, request, messageOf(ex));
+                    }
+                }
+                if (ledgersByIndex.isEmpty()) {
+                    return Map.of();
+                }
+
+                account.setCurrentPoints(balance);
+                long entryNo = accountWriteExecutor.reserveLedgerEntryNos(account, ledgersByIndex.size());
+                for (PointLedger ledger : ledgersByIndex.values()) {
+                    ledger.setEntryNo(entryNo++);
+                }
+                purchaseRepository.saveAll(ledgersByIndex.values().stream().map(PointLedger::getPurchase).toList());
+                ledgerEventService.recordAll(pointLedgerRepository.saveAll(ledgersByIndex.values()));
+                loyaltyAccountRepository.save(account);
+                loyaltyStatsService.recordPointsDelta(account.getRestaurant().getId(), balance - openingBalance);
+
+                Map<Integer, PurchaseResponse> responses = new LinkedHashMap<>();
+                ledgersByIndex.forEach((index, ledger) -> responses.put(index, toResponse(ledger, accountId)));
+                return responses;
+            });
+        } catch (RuntimeException ex) {
+            String message = messageOf(ex);
+            for (Integer index : indexes) {
+                if (results[index] == null) {
+                    results[index] = failed(index, requests.get(index), message);
+                }
+            }
+            return;
+        }
+
+        posted.forEach((index, response) -> results[index] = new PurchaseBatchItemResult(
+                index,
+                response.purchaseNumber(),
+                PurchaseBatchItemResult.Status.CREATED,
+                response,
+                null));
+    }
+
+    private PointLedger preparePurchase(LoyaltyAccount account,
+                                        PurchaseRequest request,
+                                        long currentBalance,
+                                        Set<Long> restaurants,
+                                        Map<RuleKey, CompiledPointRule> rules) {
+        if (!restaurants.contains(request.restaurantId())) {
+            throw new EntityNotFoundException("Restaurant not found");
+        }
+        Restaurant restaurant = restaurantRepository.getReferenceById(request.restaurantId());
+
+        Purchase purchase = new Purchase();
+        purchase.setLoyaltyAccount(account);
+        purchase.setRestaurant(restaurant);
+        purchase.setPurchaseNumber(request.purchaseNumber());
+        purchase.setCurrency(request.currency().trim().toUpperCase(Locale.ROOT));
+        purchase.setTotalAmount(request.totalAmount());
+        purchase.setPurchasedAt(request.purchasedAt() != null ? request.purchasedAt() : Instant.now());
+        purchase.setNotes(request.notes());
+
+        RuleKey ruleKey = new RuleKey(
+                restaurant.getId(),
+                request.pointRuleId(),
+                LocalDate.ofInstant(purchase.getPurchasedAt(), ZoneId.systemDefault()));
+        CompiledPointRule appliedRule = rules.get(ruleKey);
+        if (appliedRule == null) {
+            appliedRule = loyaltyService.resolvePointRule(request.pointRuleId(), restaurant, purchase.getPurchasedAt());
+            rules.put(ruleKey, appliedRule);
+        }
+
+        long points = pointCalculator.calculatePoints(purchase.getTotalAmount(), appliedRule);
+        if (points == 0) {
+            throw new IllegalStateException("Calculated points is zero");
+        }
+
+        PointLedger ledger = new PointLedger();
+        ledger.setLoyaltyAccount(account);
+        ledger.setEntryType(PointLedger.EntryType.EARN);
+        ledger.setPoints(points);
+        ledger.setBalanceAfter(currentBalance + points);
+        ledger.setOccurredAt(purchase.getPurchasedAt());
+        ledger.setDescription(StringUtils.hasText(request.description()) ? request.description() : "Purchase points");
+        ledger.setPurchase(purchase);
+        ledger.setPointRule(pointRuleRepository.getReferenceById(appliedRule.rule().getId()));
+        return ledger;
+    }
+
+    private String validate(PurchaseRequest request) {
+        if (request == null) {
+            return "Purchase entry must not be null";
+        }
+        Set<ConstraintViolation<PurchaseRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private PurchaseResponse toResponse(PointLedger ledger, Long accountId) {
+        Purchase purchase = ledger.getPurchase();
+        return new PurchaseResponse(
+                purchase.getId(),
+                purchase.getPurchaseNumber(),
+                purchase.getTotalAmount(),
+                purchase.getCurrency(),
+                purchase.getPurchasedAt(),
+                accountId,
+                purchase.getRestaurant().getId(),
+                ledger.getId(),
+                ledger.getPoints(),
+                ledger.getBalanceAfter());
+    }
+
+    private static PurchaseBatchItemResult failed(int index, PurchaseRequest request, String error) {
+        return new PurchaseBatchItemResult(
+                index,
+                request != null ? request.purchaseNumber() : null,
+                PurchaseBatchItemResult.Status.FAILED,
+                null,
+                error);
+    }
+
+    private static String messageOf(RuntimeException ex) {
+        if (ex instanceof DataIntegrityViolationException) {
+            return "Data integrity violation";
+        }
+        return ex.getMessage() != null ? ex.getMessage() : "Failed to record purchase";
+    }
+
+    private record RuleKey(Long restaurantId, Long pointRuleId, LocalDate referenceDate) {
+    }
+}
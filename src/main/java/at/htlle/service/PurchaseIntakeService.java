@@ -0,0 +1,311 @@
+package at.htlle.service;
+
+import at.htlle.dto.PurchaseBatchItemResult;
+import at.htlle.dto.PurchaseBatchResponse;
+import at.htlle.dto.PurchaseIntakeStatus;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.dto.PurchaseResponse;
+import at.htlle.entity.PointLedger;
+import at.htlle.entity.Purchase;
+import at.htlle.entity.PurchaseIntake;
+import at.htlle.repository.PointLedgerRepository;
+import at.htlle.repository.PurchaseIntakeRepository;
+import at.htlle.repository.PurchaseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PurchaseIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseIntakeService.class);
+
+    private final PurchaseBatchService purchaseBatchService;
+    private final PurchaseIntakeRepository purchaseIntakeRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final PointLedgerRepository pointLedgerRepository;
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final PurchaseJournal journal;
+    private final ConcurrentMap<String, Instant> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private ScheduledExecutorService poster;
+
+    public PurchaseIntakeService(PurchaseBatchService purchaseBatchService,
+                                 PurchaseIntakeRepository purchaseIntakeRepository,
+                                 PurchaseRepository purchaseRepository,
+                                 PointLedgerRepository pointLedgerRepository,
+                                 CatalogService catalogService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${bonus.purchase-intake.enabled:false}") boolean enabled,
+                                 @Value("${bonus.purchase-intake.journal-dir:./data/purchase-journal}") Path journalDir,
+                                 @Value("${bonus.purchase-intake.segment-size:16777216}") int segmentSize,
+                                 @Value("${bonus.purchase-intake.flush-delay:PT0.002S}") Duration flushDelay,
+                                 @Value("${bonus.purchase-intake.batch-size:200}") int batchSize,
+                                 @Value("${bonus.purchase-intake.poll-interval:PT0.5S}") Duration pollInterval) {
+        if (batchSize < 1 || batchSize > PurchaseBatchService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("bonus.purchase-intake.batch-size must be between 1 and "
+                    + PurchaseBatchService.MAX_BATCH_SIZE);
+        }
+        this.purchaseBatchService = purchaseBatchService;
+        this.purchaseIntakeRepository = purchaseIntakeRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.pointLedgerRepository = pointLedgerRepository;
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.journal = enabled ? new PurchaseJournal(journalDir, segmentSize, flushDelay) : null;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal.open();
+        // Entries accepted before a crash or restart are still in the journal; they stay visible as pending
+        // and the poster replays them. Those that reached the database before the crash are recognised there.
+        journal.replayUnposted(entry -> {
+            AcceptedPurchase accepted = read(entry);
+            pending.put(accepted.trackingId(), accepted.acceptedAt());
+        });
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} accepted purchases from the journal", pending.size());
+        }
+        poster = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("purchase-poster-"));
+        poster.scheduleWithFixedDelay(this::drainQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        poster.shutdown();
+        try {
+            poster.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public PurchaseIntakeStatus accept(PurchaseRequest request) {
+        PurchaseIntakeStatus accepted = prepare(request);
+        submit(accepted, request);
+        return accepted;
+    }
+
+    // Assigns the tracking id without journaling, so callers can store it before the purchase becomes durable.
+    public PurchaseIntakeStatus prepare(PurchaseRequest request) {
+        if (!enabled) {
+            throw new IllegalStateException("Asynchronous purchase intake is disabled");
+        }
+        if (catalogService.findRestaurant(request.restaurantId()).isEmpty()) {
+            throw new EntityNotFoundException("Restaurant not found");
+        }
+        return new PurchaseIntakeStatus(UUID.randomUUID().toString(), PurchaseIntakeStatus.Status.PENDING,
+                Instant.now(), null, null);
+    }
+
+    public void submit(PurchaseIntakeStatus accepted, PurchaseRequest request) {
+        if (!enabled) {
+            throw new IllegalStateException("Asynchronous purchase intake is disabled");
+        }
+        byte[] payload = write(new AcceptedPurchase(accepted.trackingId(), accepted.acceptedAt(), request));
+        pending.put(accepted.trackingId(), accepted.acceptedAt());
+        try {
+            journal.append(payload);
+        } catch (RuntimeException ex) {
+            pending.remove(accepted.trackingId());
+            throw ex;
+        }
+    }
+
+    public PurchaseIntakeStatus status(String trackingId) {
+        Instant acceptedAt = pending.get(trackingId);
+        if (acceptedAt != null) {
+            return new PurchaseIntakeStatus(trackingId, PurchaseIntakeStatus.Status.PENDING, acceptedAt, null, null);
+        }
+        PurchaseIntake intake = purchaseIntakeRepository.findById(trackingId)
+                .orElseThrow(() -> new EntityNotFoundException("Accepted purchase not found"));
+        if (intake.getStatus() == PurchaseIntake.Status.FAILED) {
+            return new PurchaseIntakeStatus(trackingId, PurchaseIntakeStatus.Status.FAILED,
+                    intake.getAcceptedAt(), null, intake.getError());
+        }
+        return new PurchaseIntakeStatus(trackingId, PurchaseIntakeStatus.Status.POSTED,
+                intake.getAcceptedAt(), readResponse(intake.getResponseBody()), null);
+    }
+
+    public int drain() {
+        if (!enabled) {
+            return 0;
+        }
+        drainLock.lock();
+        try {
+            int posted = 0;
+            while (true) {
+                int batch = postBatch();
+                if (batch == 0) {
+                    return posted;
+                }
+                posted += batch;
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            // Nothing is marked as posted, so the same entries are retried on the next poll.
+            logger.warn("Posting accepted purchases failed, retrying in {}", pollInterval, ex);
+        }
+    }
+
+    private int postBatch() {
+        List<PurchaseJournal.Entry> entries = journal.readDurable(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        List<AcceptedPurchase> accepted = entries.stream().map(this::read).toList();
+        Set<String> recorded = new HashSet<>();
+        purchaseIntakeRepository.findAllById(accepted.stream().map(AcceptedPurchase::trackingId).toList())
+                .forEach(intake -> recorded.add(intake.getTrackingId()));
+        Set<String> existingNumbers = new HashSet<>(purchaseRepository.findExistingPurchaseNumbers(
+                accepted.stream().map(purchase -> purchase.request().purchaseNumber()).toList()));
+
+        List<PurchaseIntake> outcomes = new ArrayList<>();
+        List<AcceptedPurchase> toPost = new ArrayList<>();
+        for (AcceptedPurchase purchase : accepted) {
+            if (recorded.contains(purchase.trackingId())) {
+                continue;
+            }
+            Optional<PurchaseIntake> alreadyPosted = existingNumbers.contains(purchase.request().purchaseNumber())
+                    ? recoverPosted(purchase)
+                    : Optional.empty();
+            if (alreadyPosted.isPresent()) {
+                outcomes.add(alreadyPosted.get());
+            } else {
+                toPost.add(purchase);
+            }
+        }
+        if (!toPost.isEmpty()) {
+            PurchaseBatchResponse response = purchaseBatchService.recordPurchases(
+                    toPost.stream().map(AcceptedPurchase::request).toList());
+            for (PurchaseBatchItemResult result : response.results()) {
+                AcceptedPurchase purchase = toPost.get(result.index());
+                PurchaseIntake intake = new PurchaseIntake(purchase.trackingId(),
+                        purchase.request().purchaseNumber(), purchase.acceptedAt());
+                if (result.status() == PurchaseBatchItemResult.Status.CREATED) {
+                    intake.posted(write(result.purchase()));
+                } else {
+                    intake.failed(result.error());
+                }
+                outcomes.add(intake);
+            }
+        }
+        purchaseIntakeRepository.saveAll(outcomes);
+        journal.markPosted(entries.get(entries.size() - 1));
+        accepted.forEach(purchase -> pending.remove(purchase.trackingId()));
+        return entries.size();
+    }
+
+    // The purchase reached the database but the process died before its outcome was recorded.
+    private Optional<PurchaseIntake> recoverPosted(AcceptedPurchase purchase) {
+        PurchaseRequest request = purchase.request();
+        return pointLedgerRepository.findEarnEntryByPurchaseNumber(request.purchaseNumber())
+                .filter(ledger -> ledger.getLoyaltyAccount().getId().equals(request.accountId()))
+                .filter(ledger -> ledger.getPurchase().getTotalAmount().compareTo(request.totalAmount()) == 0)
+                .map(ledger -> {
+                    PurchaseIntake intake = new PurchaseIntake(purchase.trackingId(), request.purchaseNumber(),
+                            purchase.acceptedAt());
+                    intake.posted(write(toResponse(ledger)));
+                    return intake;
+                });
+    }
+
+    private PurchaseResponse toResponse(PointLedger ledger) {
+        Purchase purchase = ledger.getPurchase();
+        return new PurchaseResponse(
+                purchase.getId(),
+                purchase.getPurchaseNumber(),
+                purchase.getTotalAmount(),
+                purchase.getCurrency(),
+                purchase.getPurchasedAt(),
+                ledger.getLoyaltyAccount().getId(),
+                purchase.getRestaurant().getId(),
+                ledger.getId(),
+                ledger.getPoints(),
+                ledger.getBalanceAfter());
+    }
+
+    private byte[] write(AcceptedPurchase accepted) {
+        try {
+            return objectMapper.writeValueAsBytes(accepted);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Purchase could not be serialized", ex);
+        }
+    }
+
+    private String write(PurchaseResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Purchase response could not be serialized", ex);
+        }
+    }
+
+    private AcceptedPurchase read(PurchaseJournal.Entry entry) {
+        try {
+            return objectMapper.readValue(entry.payload(), AcceptedPurchase.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unreadable purchase journal entry " + entry.sequence(), ex);
+        }
+    }
+
+    private PurchaseResponse readResponse(String body) {
+        try {
+            return objectMapper.readValue(body, PurchaseResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored purchase response could not be read", ex);
+        }
+    }
+
+    record AcceptedPurchase(String trackingId, Instant acceptedAt, PurchaseRequest request) {
+    }
+}
@@ -0,0 +1,413 @@
+package at.htlle.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Append-only log of memory-mapped segment files. Appenders return once their record is forced to disk;
+// a single flusher thread forces whatever accumulated since the last force, so concurrent appends share
+// one fsync. Records: payload length (int), CRC32C of the payload (int), sequence (long), payload.
+public class PurchaseJournal implements Closeable {
+
+    public record Entry(long sequence, byte[] payload, long segment, int endPosition) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseJournal.class);
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String POSTED_FILE = "posted.seq";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushDelayNanos;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private Segment active;
+    private long nextSequence;
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+    private volatile long postedSequence;
+    private volatile long readSegment;
+    private volatile int readPosition;
+    private volatile boolean closed;
+    private volatile IOException flushFailure;
+    private FileChannel postedChannel;
+    private Thread flusher;
+
+    public PurchaseJournal(Path directory, int segmentSize, Duration flushDelay) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Journal segments must be at least 1024 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushDelayNanos = flushDelay.toNanos();
+    }
+
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            postedChannel = FileChannel.open(directory.resolve(POSTED_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer posted = ByteBuffer.allocate(Long.BYTES);
+            postedSequence = postedChannel.read(posted, 0) == Long.BYTES ? posted.getLong(0) : 0L;
+
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .sorted()
+                        .toList();
+            }
+            long lastSequence = postedSequence;
+            for (int index = 0; index < files.size(); index++) {
+                Segment segment = recover(files.get(index), index == files.size() - 1);
+                segments.put(segment.firstSequence, segment);
+                if (segment.lastSequence >= segment.firstSequence) {
+                    lastSequence = Math.max(lastSequence, segment.lastSequence);
+                }
+            }
+            nextSequence = lastSequence + 1;
+            appendedSequence = lastSequence;
+            durableSequence = lastSequence;
+            if (!segments.isEmpty()) {
+                active = segments.lastEntry().getValue();
+                readSegment = segments.firstKey();
+            }
+            deletePostedSegments();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open purchase journal in " + directory, ex);
+        }
+        flusher = Thread.ofPlatform().daemon().name("purchase-journal-flusher").start(this::flushLoop);
+    }
+
+    public long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("Journal entry is larger than a segment");
+        }
+        long sequence;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Purchase journal is closed");
+            }
+            throwIfFlushFailed();
+            if (active == null || active.writePosition + recordBytes > active.buffer.capacity()) {
+                rollSegment();
+            }
+            sequence = nextSequence++;
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            int position = active.writePosition;
+            // The length goes in last so a reader never sees a complete-looking header for a half-written record.
+            active.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            active.buffer.putLong(position + 2 * Integer.BYTES, sequence);
+            active.buffer.put(position + HEADER_BYTES, payload);
+            active.buffer.putInt(position, payload.length);
+            active.lastSequence = sequence;
+            active.writePosition = position + recordBytes;
+            appendedSequence = sequence;
+        } finally {
+            appendLock.unlock();
+        }
+        LockSupport.unpark(flusher);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    // Durable entries after the last posted one, oldest first; nothing is consumed until markPosted.
+    public List<Entry> readDurable(int maxEntries) {
+        List<Entry> entries = new ArrayList<>();
+        scan(readSegment, readPosition, maxEntries, entries::add);
+        return entries;
+    }
+
+    public void replayUnposted(Consumer<Entry> consumer) {
+        scan(readSegment, readPosition, Integer.MAX_VALUE, consumer);
+    }
+
+    public void markPosted(Entry last) {
+        try {
+            ByteBuffer posted = ByteBuffer.allocate(Long.BYTES).putLong(0, last.sequence());
+            postedChannel.write(posted, 0);
+            postedChannel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not record posted journal position", ex);
+        }
+        postedSequence = last.sequence();
+        readSegment = last.segment();
+        readPosition = last.endPosition();
+        deletePostedSegments();
+    }
+
+    public long postedSequence() {
+        return postedSequence;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (flushFailure == null) {
+            forcePending();
+        }
+        for (Segment segment : segments.values()) {
+            closeQuietly(segment.channel);
+        }
+        closeQuietly(postedChannel);
+    }
+
+    private void scan(long fromSegment, int fromPosition, int maxEntries, Consumer<Entry> consumer) {
+        int found = 0;
+        long segmentKey = fromSegment;
+        int position = fromPosition;
+        for (Map.Entry<Long, Segment> current : segments.tailMap(segmentKey, true).entrySet()) {
+            Segment segment = current.getValue();
+            if (current.getKey() != segmentKey) {
+                position = 0;
+            }
+            int durable = segment.durablePosition;
+            while (found < maxEntries && position + HEADER_BYTES <= durable) {
+                int length = segment.buffer.getInt(position);
+                long sequence = segment.buffer.getLong(position + 2 * Integer.BYTES);
+                byte[] payload = new byte[length];
+                segment.buffer.get(position + HEADER_BYTES, payload);
+                position += HEADER_BYTES + length;
+                if (sequence > postedSequence) {
+                    consumer.accept(new Entry(sequence, payload, current.getKey(), position));
+                    found++;
+                }
+            }
+            if (found >= maxEntries || !segment.sealed || position < segment.writePosition) {
+                return;
+            }
+            segmentKey = current.getKey();
+        }
+    }
+
+    private Segment recover(Path file, boolean last) throws IOException {
+        String name = file.getFileName().toString();
+        long firstSequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        Segment segment = new Segment(firstSequence, channel, buffer);
+
+        int position = 0;
+        long expected = firstSequence;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + HEADER_BYTES + length > buffer.capacity()
+                    || buffer.getLong(position + 2 * Integer.BYTES) != expected) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+        if (hasBytesAfter(buffer, position)) {
+            // Leftovers of a record torn by a crash mid-append; it was never acknowledged, so it is dropped.
+            logger.warn("Discarding incomplete purchase journal data at {}:{}", name, position);
+            for (int index = position; index < buffer.capacity(); index++) {
+                buffer.put(index, (byte) 0);
+            }
+            buffer.force();
+        }
+        segment.writePosition = position;
+        segment.durablePosition = position;
+        segment.lastSequence = expected - 1;
+        segment.sealed = !last;
+        return segment;
+    }
+
+    private static boolean hasBytesAfter(MappedByteBuffer buffer, int position) {
+        for (int index = position; index < buffer.capacity(); index++) {
+            if (buffer.get(index) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rollSegment() {
+        if (active != null) {
+            active.sealed = true;
+        }
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(nextSequence, channel,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+            segment.lastSequence = nextSequence - 1;
+            segments.put(segment.firstSequence, segment);
+            if (active == null) {
+                readSegment = segment.firstSequence;
+                readPosition = 0;
+            }
+            active = segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create purchase journal segment " + file, ex);
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            if (appendedSequence == durableSequence) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            if (flushDelayNanos > 0) {
+                LockSupport.parkNanos(this, flushDelayNanos);
+            }
+            try {
+                forcePending();
+            } catch (RuntimeException | Error ex) {
+                // Whether anything after the last successful force reached the disk is unknown, so waiting
+                // appenders and every later append fail instead of being acknowledged.
+                logger.error("Forcing the purchase journal to disk failed, rejecting further appends", ex);
+                flushLock.lock();
+                try {
+                    flushFailure = ex.getCause() instanceof IOException io ? io : new IOException(ex);
+                    flushed.signalAll();
+                } finally {
+                    flushLock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void forcePending() {
+        long target = appendedSequence;
+        for (Segment segment : segments.values()) {
+            int written = segment.writePosition;
+            if (written > segment.durablePosition) {
+                segment.buffer.force(segment.durablePosition, written - segment.durablePosition);
+                segment.durablePosition = written;
+            }
+        }
+        flushLock.lock();
+        try {
+            durableSequence = Math.max(durableSequence, target);
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        flushLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                throwIfFlushFailed();
+                if (closed) {
+                    throw new IllegalStateException("Purchase journal closed before the entry was written");
+                }
+                flushed.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the purchase journal", ex);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void throwIfFlushFailed() {
+        IOException failure = flushFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("Purchase journal could not be written to disk", failure);
+        }
+    }
+
+    private void deletePostedSegments() {
+        for (Segment segment : segments.values()) {
+            if (!segment.sealed || segment.lastSequence > postedSequence || segment.firstSequence == readSegment) {
+                return;
+            }
+            segments.remove(segment.firstSequence);
+            closeQuietly(segment.channel);
+            try {
+                Files.deleteIfExists(directory.resolve(
+                        String.format("%s%020d%s", SEGMENT_PREFIX, segment.firstSequence, SEGMENT_SUFFIX)));
+            } catch (IOException ex) {
+                logger.warn("Could not delete posted purchase journal segment {}", segment.firstSequence, ex);
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not close purchase journal file", ex);
+        }
+    }
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+        private volatile int durablePosition;
+        private volatile long lastSequence;
+        private volatile boolean sealed;
+
+        private Segment(long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package at.htlle.service;
+
+import at.htlle.repository.RedemptionRepository;
+import java.security.SecureRandom;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "bonus.redemption-code.generator", havingValue = "random")
+public class RandomRedemptionCodeGenerator implements RedemptionCodeGenerator {
+
+    private static final int MIN_LENGTH = 8;
+    private static final int MAX_LENGTH = 12;
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final RedemptionRepository redemptionRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RandomRedemptionCodeGenerator(RedemptionRepository redemptionRepository) {
+        this.redemptionRepository = redemptionRepository;
+    }
+
+    @Override
+    public String nextCode() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String code = randomCode();
+            if (!redemptionRepository.existsByRedemptionCode(code)) {
+                return code;
+            }
+        }
+        throw new IllegalStateException("Failed to generate unique redemption code");
+    }
+
+    private String randomCode() {
+        int length = MIN_LENGTH + secureRandom.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(secureRandom.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+}
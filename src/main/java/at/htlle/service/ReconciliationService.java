@@ -0,0 +1,174 @@
+package at.htlle.service;
+
+import at.htlle.dto.AccountDrift;
+import at.htlle.dto.ReconciliationReport;
+import at.htlle.util.WorkerPools;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    // One pass over the partition's ledger rows: the window function carries the previous running total
+    // along each account's entries in booking order (entry_no, since pooled ids are not ordered across
+    // nodes and recorded_at of old entries was copied from the backdatable occurred_at), the outer grouping
+    // folds them into per-account totals.
+    private static final String PARTITION_SQL = "select la.id, la.current_points, "
+            + "coalesce(l.ledger_points, 0), coalesce(l.entries, 0), coalesce(l.chain_breaks, 0), "
+            + "coalesce(l.last_entry_no, 0) "
+            + "from loyalty_account la left join ("
+            + "select chain.loyalty_account_id, sum(chain.points) as ledger_points, count(*) as entries, "
+            + "sum(case when chain.balance_after - chain.points <> chain.previous_balance then 1 else 0 end) as chain_breaks, "
+            + "max(chain.entry_no) as last_entry_no "
+            + "from (select pl.loyalty_account_id, pl.entry_no, pl.points, pl.balance_after, "
+            + "coalesce(lag(pl.balance_after) over (partition by pl.loyalty_account_id order by pl.entry_no), 0) as previous_balance "
+            + "from point_ledger pl where pl.loyalty_account_id between ? and ?) chain "
+            + "group by chain.loyalty_account_id) l on l.loyalty_account_id = la.id "
+            + "where la.id between ? and ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoyaltyService loyaltyService;
+    private final boolean scheduledRepair;
+    private final int partitionSize;
+    private final int maxReportedDrifts;
+    private final ExecutorService workerPool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate,
+                                 LoyaltyService loyaltyService,
+                                 @Value("${bonus.reconciliation.auto-repair:false}") boolean scheduledRepair,
+                                 @Value("${bonus.reconciliation.partition-size:2000}") int partitionSize,
+                                 @Value("${bonus.reconciliation.max-reported-drifts:100}") int maxReportedDrifts,
+                                 @Value("${bonus.reconciliation.workers:4}") int workers,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (partitionSize < 1 || workers < 1) {
+            throw new IllegalArgumentException(
+                    "bonus.reconciliation.partition-size and bonus.reconciliation.workers must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.loyaltyService = loyaltyService;
+        this.scheduledRepair = scheduledRepair;
+        this.partitionSize = partitionSize;
+        this.maxReportedDrifts = maxReportedDrifts;
+        this.workerPool = WorkerPools.fixed("reconciliation-", workers, virtualThreads);
+    }
+
+    @Scheduled(cron = "${bonus.reconciliation.cron:-}")
+    public void scheduledRun() {
+        if (running.get()) {
+            return;
+        }
+        ReconciliationReport report = reconcile(null, null, scheduledRepair);
+        logger.info("Reconciliation checked {} accounts and {} ledger entries in {} ms: "
+                        + "{} balance drifts, {} broken chains, {} repaired",
+                report.accountsChecked(), report.ledgerEntriesChecked(), report.durationMillis(),
+                report.accountsWithBalanceDrift(), report.accountsWithBrokenChain(), report.accountsRepaired());
+    }
+
+    public ReconciliationReport reconcile(Long fromAccountId, Long toAccountId, boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reconciliation is already running");
+        }
+        try {
+            return run(fromAccountId, toAccountId, repair);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    private ReconciliationReport run(Long fromAccountId, Long toAccountId, boolean repair) {
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        Long minId = jdbcTemplate.queryForObject("select min(id) from loyalty_account", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from loyalty_account", Long.class);
+        long from = Math.max(minId == null ? 0 : minId, fromAccountId == null ? Long.MIN_VALUE : fromAccountId);
+        long to = Math.min(maxId == null ? -1 : maxId, toAccountId == null ? Long.MAX_VALUE : toAccountId);
+
+        List<Future<PartitionResult>> partitions = new ArrayList<>();
+        for (long start = from; start <= to; start += partitionSize) {
+            long partitionStart = start;
+            long partitionEnd = Math.min(to, start + partitionSize - 1);
+            partitions.add(workerPool.submit(() -> checkPartition(partitionStart, partitionEnd)));
+        }
+
+        long accounts = 0;
+        long entries = 0;
+        List<AccountDrift> drifts = new ArrayList<>();
+        for (Future<PartitionResult> partition : partitions) {
+            PartitionResult result = await(partition);
+            accounts += result.accounts();
+            entries += result.entries();
+            drifts.addAll(result.drifts());
+        }
+        drifts.sort(Comparator.comparingLong(AccountDrift::accountId));
+
+        long balanceDrifts = drifts.stream().filter(AccountDrift::hasBalanceDrift).count();
+        long brokenChains = drifts.stream().filter(drift -> drift.chainBreaks() > 0).count();
+        long repaired = 0;
+        if (repair) {
+            // Detection reads without locks; the repair applies the full-ledger total it found under the
+            // account lock, topped up with entries booked after the check.
+            for (AccountDrift drift : drifts) {
+                if (drift.hasBalanceDrift()
+                        && loyaltyService.applyLedgerBalance(drift.accountId(), drift.ledgerPoints(), drift.lastEntryNo())) {
+                    repaired++;
+                }
+            }
+        }
+        List<AccountDrift> reported = drifts.size() > maxReportedDrifts
+                ? List.copyOf(drifts.subList(0, maxReportedDrifts))
+                : List.copyOf(drifts);
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new ReconciliationReport(startedAt, durationMillis, partitions.size(), accounts, entries,
+                balanceDrifts, brokenChains, repaired, reported);
+    }
+
+    private PartitionResult checkPartition(long fromId, long toId) {
+        long[] totals = {0, 0};
+        List<AccountDrift> drifts = new ArrayList<>();
+        jdbcTemplate.query(PARTITION_SQL, resultSet -> {
+            AccountDrift drift = new AccountDrift(resultSet.getLong(1), resultSet.getLong(2),
+                    resultSet.getLong(3), resultSet.getLong(5), resultSet.getLong(6));
+            totals[0]++;
+            totals[1] += resultSet.getLong(4);
+            if (drift.hasBalanceDrift() || drift.chainBreaks() > 0) {
+                drifts.add(drift);
+            }
+        }, fromId, toId, fromId, toId);
+        return new PartitionResult(totals[0], totals[1], drifts);
+    }
+
+    private PartitionResult await(Future<PartitionResult> partition) {
+        try {
+            return partition.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Reconciliation failed", ex.getCause());
+        }
+    }
+
+    private record PartitionResult(long accounts, long entries, List<AccountDrift> drifts) {
+    }
+}
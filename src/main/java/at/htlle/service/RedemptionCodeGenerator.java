@@ -0,0 +1,8 @@
+package at.htlle.service;
+
+public interface RedemptionCodeGenerator {
+
+    String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    String nextCode();
+}
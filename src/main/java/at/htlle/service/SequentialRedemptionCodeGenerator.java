@@ -0,0 +1,137 @@
+package at.htlle.service;
+
+import at.htlle.repository.RedemptionRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "bonus.redemption-code.generator", havingValue = "sequential", matchIfMissing = true)
+public class SequentialRedemptionCodeGenerator implements RedemptionCodeGenerator {
+
+    // 6 bits node | 32 bits seconds since EPOCH | 18 bits sequence = 56 bits, which fit into 11 base-36 digits.
+    static final int NODE_BITS = 6;
+    static final int SECOND_BITS = 32;
+    static final int SEQUENCE_BITS = 18;
+    static final int PAYLOAD_LENGTH = 11;
+    static final long EPOCH_SECOND = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    // Codes stored further ahead than this cannot stem from a clock step and are not used to resume.
+    static final Duration MAX_CLOCK_STEP = Duration.ofDays(1);
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long SECOND_MASK = (1L << SECOND_BITS) - 1;
+    private static final int RADIX = ALPHABET.length();
+
+    private final long nodeId;
+    private final Clock clock;
+    // Packed (seconds << SEQUENCE_BITS) | sequence of the last issued code.
+    private final AtomicLong lastIssued = new AtomicLong();
+
+    @Autowired
+    public SequentialRedemptionCodeGenerator(@Value("${bonus.redemption-code.node-id:#{null}}") Integer nodeId,
+                                             RedemptionRepository redemptionRepository) {
+        this(requireNodeId(nodeId), Clock.systemUTC());
+        // After a restart the counter resumes behind the last stored code, so a clock that was set back
+        // cannot hand out a code issued before the restart.
+        long lastSecond = currentSecond() + MAX_CLOCK_STEP.toSeconds();
+        redemptionRepository.findHighestRedemptionCode(
+                        encode(this.nodeId << (SECOND_BITS + SEQUENCE_BITS)),
+                        encode((this.nodeId << (SECOND_BITS + SEQUENCE_BITS)) | (lastSecond << SEQUENCE_BITS)
+                                | SEQUENCE_MASK),
+                        PAYLOAD_LENGTH + 1)
+                .ifPresent(this::resumeAfter);
+    }
+
+    SequentialRedemptionCodeGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("bonus.redemption-code.node-id must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    private static int requireNodeId(Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException(
+                    "bonus.redemption-code.node-id must be set for the sequential redemption code generator "
+                            + "(or set bonus.redemption-code.generator=random)");
+        }
+        return nodeId;
+    }
+
+    void resumeAfter(String code) {
+        long issued = decode(code) & ((1L << (SECOND_BITS + SEQUENCE_BITS)) - 1);
+        lastIssued.accumulateAndGet(issued, Math::max);
+    }
+
+    @Override
+    public String nextCode() {
+        long second = currentSecond();
+        long issued = lastIssued.updateAndGet(previous -> {
+            long previousSecond = previous >>> SEQUENCE_BITS;
+            if (second > previousSecond) {
+                return second << SEQUENCE_BITS;
+            }
+            // Same second or clock moved backwards: keep counting; an exhausted sequence borrows the next second.
+            return previous + 1;
+        });
+        if ((issued >>> SEQUENCE_BITS) > SECOND_MASK) {
+            throw new IllegalStateException("Redemption code space exhausted");
+        }
+        return encode((nodeId << (SECOND_BITS + SEQUENCE_BITS)) | issued);
+    }
+
+    private long currentSecond() {
+        return Math.max(0, clock.instant().getEpochSecond() - EPOCH_SECOND);
+    }
+
+    static String encode(long value) {
+        char[] code = new char[PAYLOAD_LENGTH + 1];
+        long remaining = value;
+        for (int i = PAYLOAD_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (remaining % RADIX));
+            remaining /= RADIX;
+        }
+        code[PAYLOAD_LENGTH] = checkCharacter(code, PAYLOAD_LENGTH);
+        return new String(code);
+    }
+
+    static long decode(String code) {
+        long value = 0;
+        for (int i = 0; i < PAYLOAD_LENGTH; i++) {
+            value = value * RADIX + ALPHABET.indexOf(code.charAt(i));
+        }
+        return value;
+    }
+
+    static boolean isValid(String code) {
+        if (code == null || code.length() != PAYLOAD_LENGTH + 1) {
+            return false;
+        }
+        char[] chars = code.toCharArray();
+        for (char c : chars) {
+            if (ALPHABET.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return checkCharacter(chars, PAYLOAD_LENGTH) == chars[PAYLOAD_LENGTH];
+    }
+
+    // Luhn mod N: catches every single-character typo and most adjacent transpositions.
+    private static char checkCharacter(char[] payload, int length) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(payload[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / RADIX + addend % RADIX;
+        }
+        int remainder = sum % RADIX;
+        return ALPHABET.charAt((RADIX - remainder) % RADIX);
+    }
+}
@@ -0,0 +1,46 @@
+package at.htlle.service;
+
+import at.htlle.entity.LoyaltyAccount;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TierPolicy {
+
+    private final Duration window;
+    private final long silverPoints;
+    private final long goldPoints;
+    private final long platinumPoints;
+
+    public TierPolicy(@Value("${bonus.tier.window:P365D}") Duration window,
+                      @Value("${bonus.tier.silver-points:500}") long silverPoints,
+                      @Value("${bonus.tier.gold-points:2000}") long goldPoints,
+                      @Value("${bonus.tier.platinum-points:5000}") long platinumPoints) {
+        if (silverPoints <= 0 || goldPoints < silverPoints || platinumPoints < goldPoints) {
+            throw new IllegalArgumentException("bonus.tier thresholds must be positive and ascending");
+        }
+        this.window = window;
+        this.silverPoints = silverPoints;
+        this.goldPoints = goldPoints;
+        this.platinumPoints = platinumPoints;
+    }
+
+    public Instant windowStart(Instant now) {
+        return now.minus(window);
+    }
+
+    public LoyaltyAccount.Tier tierFor(long pointsEarnedInWindow) {
+        if (pointsEarnedInWindow >= platinumPoints) {
+            return LoyaltyAccount.Tier.PLATINUM;
+        }
+        if (pointsEarnedInWindow >= goldPoints) {
+            return LoyaltyAccount.Tier.GOLD;
+        }
+        if (pointsEarnedInWindow >= silverPoints) {
+            return LoyaltyAccount.Tier.SILVER;
+        }
+        return LoyaltyAccount.Tier.STANDARD;
+    }
+}
@@ -0,0 +1,179 @@
+package at.htlle.service;
+
+import at.htlle.dto.TierRunResult;
+import at.htlle.entity.JobCheckpoint;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.util.TransactionCallbacks;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class TierRecalculationService {
+
+    public static final String JOB_NAME = "tier-recalculation";
+
+    private static final Logger logger = LoggerFactory.getLogger(TierRecalculationService.class);
+
+    private static final String EARNED_IN_WINDOW_SQL = "select la.id, la.tier, coalesce(sum(pl.points), 0) "
+            + "from loyalty_account la "
+            + "left join point_ledger pl on pl.loyalty_account_id = la.id "
+            + "and pl.entry_type = 'EARN' and pl.occurred_at >= ? ";
+    private static final String AFTER_ACCOUNT_FILTER = "where la.id > ? ";
+    private static final String CHANGED_ACCOUNTS_FILTER = "and la.id in "
+            + "(select changed.loyalty_account_id from point_ledger changed where changed.recorded_at >= ?) ";
+    private static final String PAGE = "group by la.id, la.tier order by la.id limit ?";
+    private static final String UPDATE_TIER_SQL = "update loyalty_account "
+            + "set tier = ?, version = version + 1, updated_at = ? where id = ? and tier = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TierPolicy tierPolicy;
+    private final AccountSummaryCache accountSummaryCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration commitLag;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TierRecalculationService(JdbcTemplate jdbcTemplate,
+                                    JobCheckpointRepository jobCheckpointRepository,
+                                    TierPolicy tierPolicy,
+                                    AccountSummaryCache accountSummaryCache,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${bonus.tier.enabled:true}") boolean enabled,
+                                    @Value("${bonus.tier.batch-size:500}") int batchSize,
+                                    @Value("${bonus.ledger.commit-lag:PT1M}") Duration commitLag) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("bonus.tier.batch-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.tierPolicy = tierPolicy;
+        this.accountSummaryCache = accountSummaryCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.commitLag = commitLag;
+    }
+
+    @Scheduled(fixedDelayString = "${bonus.tier.incremental-interval:PT15M}",
+            initialDelayString = "${bonus.tier.incremental-interval:PT15M}")
+    public void scheduledIncrementalRun() {
+        if (enabled && !running.get()) {
+            log(recalculate(false));
+        }
+    }
+
+    // Tiers also drop when earnings leave the rolling window, which no new ledger entry signals.
+    @Scheduled(cron = "${bonus.tier.full-cron:0 0 4 * * *}")
+    public void scheduledFullRun() {
+        if (enabled && !running.get()) {
+            log(recalculate(true));
+        }
+    }
+
+    public TierRunResult recalculate(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Tier recalculation is already running");
+        }
+        try {
+            return run(full);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private TierRunResult run(boolean requestedFull) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        boolean full = requestedFull || checkpoint.getReferenceAt() == null;
+        Instant now = Instant.now();
+        // Ledger ids come from pooled sequences and say nothing about commit order across nodes, so changes
+        // are found by insert time; the overlap covers entries that were recorded but not yet committed.
+        Instant changesSince = full ? null : checkpoint.getReferenceAt().minus(commitLag);
+
+        Timestamp windowStart = Timestamp.from(tierPolicy.windowStart(now));
+        Timestamp updatedAt = Timestamp.from(now);
+        String sql = EARNED_IN_WINDOW_SQL + AFTER_ACCOUNT_FILTER + (full ? "" : CHANGED_ACCOUNTS_FILTER) + PAGE;
+        long evaluated = 0;
+        long changed = 0;
+        long afterAccountId = 0;
+        // Each page is read on its own and its updates commit in their own transaction; the conditional update
+        // skips accounts whose tier moved in between, and an interrupted run is simply repeated.
+        while (true) {
+            Object[] parameters = full
+                    ? new Object[] {windowStart, afterAccountId, batchSize}
+                    : new Object[] {windowStart, afterAccountId, Timestamp.from(changesSince), batchSize};
+            List<TierChange> changes = new ArrayList<>();
+            long[] page = {0, afterAccountId};
+            jdbcTemplate.query(sql, resultSet -> {
+                page[0]++;
+                page[1] = resultSet.getLong(1);
+                LoyaltyAccount.Tier current = LoyaltyAccount.Tier.valueOf(resultSet.getString(2));
+                LoyaltyAccount.Tier target = tierPolicy.tierFor(resultSet.getLong(3));
+                if (target != current) {
+                    changes.add(new TierChange(page[1], current, target));
+                }
+            }, parameters);
+            evaluated += page[0];
+            changed += apply(changes, updatedAt);
+            if (page[0] < batchSize) {
+                break;
+            }
+            afterAccountId = page[1];
+        }
+
+        checkpoint.setReferenceAt(now);
+        checkpoint.setCompletedAt(Instant.now());
+        jobCheckpointRepository.save(checkpoint);
+        return new TierRunResult(full, evaluated, changed, changesSince);
+    }
+
+    private long apply(List<TierChange> changes, Timestamp updatedAt) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        Long changed = transactionTemplate.execute(status -> {
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_TIER_SQL, changes, changes.size(), (statement, change) -> {
+                statement.setString(1, change.to().name());
+                statement.setTimestamp(2, updatedAt);
+                statement.setLong(3, change.accountId());
+                statement.setString(4, change.from().name());
+            });
+            long rowsChanged = 0;
+            for (int[] batch : updated) {
+                for (int rows : batch) {
+                    if (rows > 0 || rows == Statement.SUCCESS_NO_INFO) {
+                        rowsChanged++;
+                    }
+                }
+            }
+            TransactionCallbacks.afterCommit(() ->
+                    changes.forEach(change -> accountSummaryCache.invalidate(change.accountId())));
+            return rowsChanged;
+        });
+        return changed == null ? 0 : changed;
+    }
+
+    private void log(TierRunResult result) {
+        logger.info("Tier recalculation ({}) finished: {} accounts evaluated, {} tiers changed",
+                result.full() ? "full" : "incremental", result.accountsEvaluated(), result.tiersChanged());
+    }
+
+    private record TierChange(long accountId, LoyaltyAccount.Tier from, LoyaltyAccount.Tier to) {
+    }
+}
@@ -0,0 +1,47 @@
+package at.htlle.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    // Cache.get(key, loader) runs the loader inside the map's bin lock, which pins a virtual thread for the
+    // whole JDBC call. Here the loader runs on the caller's thread outside any monitor; concurrent callers
+    // for the same key wait on the in-flight future instead of loading again.
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return await(cached);
+        }
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.apply(key);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package at.htlle.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+public final class WorkerPools {
+
+    private WorkerPools() {
+    }
+
+    // Batch jobs stay bounded to `workers` either way, since each worker holds a pooled JDBC connection.
+    public static ExecutorService fixed(String threadNamePrefix, int workers, boolean virtualThreads) {
+        return virtualThreads
+                ? Executors.newFixedThreadPool(workers, Thread.ofVirtual().name(threadNamePrefix, 0).factory())
+                : Executors.newFixedThreadPool(workers, new CustomizableThreadFactory(threadNamePrefix));
+    }
+}
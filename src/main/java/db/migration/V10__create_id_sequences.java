@@ -0,0 +1,40 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Java migration because the start value depends on existing rows and neither H2 nor
+// PostgreSQL accept a sub-select in CREATE SEQUENCE ... START WITH.
+public class V10__create_id_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+            "customer",
+            "restaurant",
+            "branch",
+            "loyalty_account",
+            "point_rule",
+            "reward",
+            "purchase",
+            "point_ledger",
+            "redemption");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long startWith;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    resultSet.next();
+                    startWith = resultSet.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + startWith
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
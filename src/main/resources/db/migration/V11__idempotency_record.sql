@@ -0,0 +1,13 @@
+CREATE SEQUENCE idempotency_record_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE idempotency_record (
+    id BIGINT PRIMARY KEY,
+    scope VARCHAR(40) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INTEGER NOT NULL,
+    response_body VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_idempotency_record_key UNIQUE (scope, idempotency_key)
+);
+CREATE INDEX idx_idempotency_record_created_at ON idempotency_record (created_at);
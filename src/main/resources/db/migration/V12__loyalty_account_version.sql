@@ -0,0 +1 @@
+ALTER TABLE loyalty_account ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
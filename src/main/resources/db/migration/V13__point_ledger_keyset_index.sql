@@ -0,0 +1,3 @@
+CREATE INDEX idx_point_ledger_account_occurred ON point_ledger (loyalty_account_id, occurred_at DESC, id DESC);
+
+DROP INDEX idx_point_ledger_account;
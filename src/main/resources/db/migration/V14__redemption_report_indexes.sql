@@ -0,0 +1,3 @@
+CREATE INDEX idx_redemption_redeemed ON redemption (redeemed_at DESC, id DESC);
+
+CREATE INDEX idx_redemption_restaurant_redeemed ON redemption (restaurant_id, redeemed_at DESC);
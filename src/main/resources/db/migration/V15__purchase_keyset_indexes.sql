@@ -0,0 +1,5 @@
+CREATE INDEX idx_purchase_purchased ON purchase (purchased_at DESC, id DESC);
+
+CREATE INDEX idx_purchase_restaurant_purchased ON purchase (restaurant_id, purchased_at DESC, id DESC);
+
+DROP INDEX idx_purchase_occurred_at;
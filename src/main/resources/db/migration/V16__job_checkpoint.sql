@@ -0,0 +1,7 @@
+CREATE TABLE job_checkpoint (
+    job_name VARCHAR(60) PRIMARY KEY,
+    cursor_id BIGINT,
+    reference_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,7 @@
+ALTER TABLE point_ledger ADD COLUMN recorded_at TIMESTAMP;
+
+UPDATE point_ledger SET recorded_at = occurred_at;
+
+ALTER TABLE point_ledger ALTER COLUMN recorded_at SET NOT NULL;
+
+CREATE INDEX idx_point_ledger_recorded ON point_ledger (recorded_at);
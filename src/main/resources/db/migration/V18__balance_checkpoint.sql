@@ -0,0 +1,9 @@
+CREATE TABLE balance_checkpoint (
+    loyalty_account_id BIGINT PRIMARY KEY,
+    last_ledger_id BIGINT NOT NULL,
+    balance BIGINT NOT NULL,
+    checkpointed_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_balance_checkpoint_account FOREIGN KEY (loyalty_account_id) REFERENCES loyalty_account (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_point_ledger_account_id ON point_ledger (loyalty_account_id, id);
@@ -0,0 +1,9 @@
+CREATE TABLE purchase_intake (
+    tracking_id VARCHAR(36) PRIMARY KEY,
+    purchase_number VARCHAR(40),
+    status VARCHAR(20) NOT NULL,
+    response_body VARCHAR(4000),
+    error VARCHAR(500),
+    accepted_at TIMESTAMP NOT NULL,
+    posted_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,19 @@
+CREATE SEQUENCE ledger_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ledger_event (
+    id BIGINT PRIMARY KEY,
+    feed_position BIGINT,
+    ledger_entry_id BIGINT NOT NULL,
+    loyalty_account_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    points BIGINT NOT NULL,
+    balance_after BIGINT NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    purchase_number VARCHAR(40),
+    redemption_id BIGINT,
+    recorded_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    CONSTRAINT uk_ledger_event_feed_position UNIQUE (feed_position)
+);
+CREATE INDEX idx_ledger_event_unpublished ON ledger_event (feed_position, id);
+CREATE INDEX idx_ledger_event_published_at ON ledger_event (published_at);
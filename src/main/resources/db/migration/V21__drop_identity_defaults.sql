@@ -0,0 +1,9 @@
+ALTER TABLE customer ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE restaurant ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE branch ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE loyalty_account ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE point_rule ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE reward ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE purchase ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE point_ledger ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE redemption ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,3 @@
+ALTER TABLE idempotency_record ADD COLUMN status VARCHAR(20) DEFAULT 'COMPLETED' NOT NULL;
+ALTER TABLE idempotency_record ALTER COLUMN response_status DROP NOT NULL;
+ALTER TABLE idempotency_record ALTER COLUMN response_body DROP NOT NULL;
@@ -0,0 +1,23 @@
+ALTER TABLE loyalty_account ADD COLUMN last_ledger_entry_no BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE point_ledger ADD COLUMN entry_no BIGINT;
+
+-- Existing entries are numbered in id order, their insert order on the single node this upgrades from.
+UPDATE point_ledger SET entry_no = numbered.rn
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY loyalty_account_id ORDER BY id) AS rn FROM point_ledger) numbered
+WHERE numbered.id = point_ledger.id;
+
+UPDATE loyalty_account SET last_ledger_entry_no = totals.last_entry_no
+FROM (SELECT loyalty_account_id, MAX(entry_no) AS last_entry_no FROM point_ledger GROUP BY loyalty_account_id) totals
+WHERE totals.loyalty_account_id = loyalty_account.id;
+
+ALTER TABLE point_ledger ALTER COLUMN entry_no SET NOT NULL;
+
+CREATE UNIQUE INDEX uk_point_ledger_account_entry ON point_ledger (loyalty_account_id, entry_no);
+
+-- Checkpoints taken at a ledger id may have skipped entries from other id blocks; they are rebuilt from scratch.
+DELETE FROM balance_checkpoint;
+
+DELETE FROM job_checkpoint WHERE job_name = 'balance-checkpoint';
+
+ALTER TABLE balance_checkpoint RENAME COLUMN last_ledger_id TO last_entry_no;
@@ -0,0 +1,12 @@
+ALTER TABLE ledger_event ADD COLUMN entry_no BIGINT;
+
+UPDATE ledger_event e SET entry_no = COALESCE(
+    (SELECT pl.entry_no FROM point_ledger pl WHERE pl.id = e.ledger_entry_id), 0);
+
+ALTER TABLE ledger_event ALTER COLUMN entry_no SET NOT NULL;
+
+DROP INDEX idx_ledger_event_unpublished;
+
+CREATE INDEX idx_ledger_event_unpublished ON ledger_event (feed_position, recorded_at, id);
+
+CREATE INDEX idx_ledger_event_account_entry ON ledger_event (loyalty_account_id, entry_no);
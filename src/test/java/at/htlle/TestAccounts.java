@@ -0,0 +1,26 @@
+package at.htlle;
+
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.service.AuthService;
+import java.util.UUID;
+
+public final class TestAccounts {
+
+    public static final String PASSWORD = "secret123";
+
+    private TestAccounts() {
+    }
+
+    public static String uniqueSuffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Registers a fresh customer with its own account; the username is the prefix plus a random suffix.
+    public static LoyaltyAccount register(AuthService authService, String prefix) {
+        return registerAs(authService, prefix + "-" + uniqueSuffix());
+    }
+
+    public static LoyaltyAccount registerAs(AuthService authService, String username) {
+        return authService.register("Test", "Customer", username + "@example.com", username, PASSWORD);
+    }
+}
@@ -0,0 +1,41 @@
+package at.htlle.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderTest {
+
+    @Test
+    void bcryptHashesWithAnotherCostAreUpgradedInBothDirections() {
+        PasswordEncoder encoder = SecurityConfig.buildPasswordEncoder("bcrypt", 5, 1000);
+        String current = encoder.encode("secret123");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret123");
+        String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret123");
+        String legacy = new BCryptPasswordEncoder(5).encode("secret123");
+
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(stronger)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+        assertThat(encoder.matches("secret123", stronger)).isTrue();
+        assertThat(encoder.matches("secret123", legacy)).isTrue();
+    }
+
+    @Test
+    void pbkdf2HashesKeepTheirIterationCountAndAreUpgradedWhenItChanges() {
+        PasswordEncoder before = SecurityConfig.buildPasswordEncoder("pbkdf2", 4, 1000);
+        PasswordEncoder after = SecurityConfig.buildPasswordEncoder("pbkdf2", 4, 2000);
+        String stored = before.encode("secret123");
+
+        assertThat(stored).startsWith("{pbkdf2-1000}");
+        assertThat(before.upgradeEncoding(stored)).isFalse();
+        assertThat(after.matches("secret123", stored)).isTrue();
+        assertThat(after.matches("wrong", stored)).isFalse();
+        assertThat(after.upgradeEncoding(stored)).isTrue();
+        assertThat(after.upgradeEncoding(after.encode("secret123"))).isFalse();
+    }
+}
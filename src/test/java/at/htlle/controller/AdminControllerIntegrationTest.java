@@ -9,16 +9,26 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.Branch;
 import at.htlle.entity.LoyaltyAccount;
 import at.htlle.entity.PointRule;
+import at.htlle.entity.Restaurant;
+import at.htlle.entity.Reward;
+import at.htlle.repository.BranchRepository;
 import at.htlle.repository.LoyaltyAccountRepository;
 import at.htlle.repository.PointRuleRepository;
 import at.htlle.repository.RestaurantRepository;
+import at.htlle.repository.RewardRepository;
+import at.htlle.service.AdminRestaurantQueryService;
 import at.htlle.service.LoyaltyService;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -42,9 +52,18 @@ class AdminControllerIntegrationTest {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private RewardRepository rewardRepository;
+
     @Autowired
     private PointRuleRepository pointRuleRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void restaurantsPageLoadsWithoutError() throws Exception {
@@ -53,6 +72,37 @@ class AdminControllerIntegrationTest {
                 .andExpect(view().name("admin-restaurants"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void restaurantsPageStatementCountDoesNotGrowWithRestaurants() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        createRestaurantWithCatalog();
+        statistics.clear();
+        mockMvc.perform(get("/admin/restaurants")).andExpect(status().isOk());
+        long before = statistics.getPrepareStatementCount();
+
+        createRestaurantWithCatalog();
+        createRestaurantWithCatalog();
+        statistics.clear();
+        mockMvc.perform(get("/admin/restaurants")).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(before);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void customersPageLoadsAccountsWithoutPerCustomerQueries() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/admin/customers").param("sort", "points").param("dir", "desc").param("size", "25"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin-customers"))
+                .andExpect(content().string(containsString("ACCT-0001")));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void purchasesPageShowsRecordedPurchase() throws Exception {
@@ -81,5 +131,37 @@ class AdminControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin-purchases"))
                 .andExpect(content().string(containsString(purchaseNumber)));
+
+        mockMvc.perform(get("/admin/purchases/export").param("restaurantId", restaurantId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(containsString(purchaseNumber)));
+    }
+
+    private void createRestaurantWithCatalog() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Admin " + suffix);
+        restaurant.setCode("ADM-" + suffix);
+        restaurant.setActive(false);
+        restaurant = restaurantRepository.save(restaurant);
+
+        Branch branch = new Branch();
+        branch.setRestaurant(restaurant);
+        branch.setBranchCode("BR-" + suffix);
+        branch.setName("Branch " + suffix);
+        branchRepository.save(branch);
+
+        Reward reward = new Reward();
+        reward.setRestaurant(restaurant);
+        reward.setRewardCode("RW-" + suffix);
+        reward.setName("Reward " + suffix);
+        reward.setCostPoints(25);
+        rewardRepository.save(reward);
+
+        PointRule rule = new PointRule();
+        rule.setRestaurant(restaurant);
+        rule.setName(AdminRestaurantQueryService.DEFAULT_POINT_RULE_NAME);
+        pointRuleRepository.save(rule);
     }
 }
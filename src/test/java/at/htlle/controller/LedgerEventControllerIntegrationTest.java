@@ -0,0 +1,134 @@
+package at.htlle.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.LedgerEventMessage;
+import at.htlle.dto.LedgerEventPage;
+import at.htlle.dto.LedgerEventRelayResult;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.service.AdminManagementService;
+import at.htlle.service.AuthService;
+import at.htlle.service.LedgerEventService;
+import at.htlle.service.LoyaltyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LedgerEventControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LedgerEventService ledgerEventService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private AdminManagementService adminManagementService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void ledgerWritesArePublishedInOrderToTheFeed() throws Exception {
+        long before = ledgerEventService.relay().lastPosition();
+        String suffix = TestAccounts.uniqueSuffix();
+        LoyaltyAccount account = TestAccounts.register(authService, "feed");
+
+        assertThat(adminManagementService.adjustPoints(account.getId(), 40L, "Welcome bonus")).isEmpty();
+        PointLedger earned = loyaltyService.recordPurchase(new PurchaseRequest(
+                account.getId(),
+                account.getRestaurant().getId(),
+                "FEED-" + suffix,
+                new BigDecimal("10.00"),
+                "EUR",
+                Instant.now(),
+                null,
+                null,
+                null));
+        assertThat(ledgerEventService.feed(before, 10).events()).isEmpty();
+
+        LedgerEventRelayResult relayed = ledgerEventService.relay();
+        assertThat(relayed.eventsPublished()).isGreaterThanOrEqualTo(2);
+
+        String body = mockMvc.perform(get("/api/events").param("after", String.valueOf(before)).param("limit", "500"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        LedgerEventPage page = objectMapper.readValue(body, LedgerEventPage.class);
+        assertThat(page.nextAfter()).isEqualTo(relayed.lastPosition());
+        List<LedgerEventMessage> events = page.events().stream()
+                .filter(event -> event.accountId().equals(account.getId()))
+                .toList();
+        assertThat(events).extracting(LedgerEventMessage::eventType)
+                .containsExactly(PointLedger.EntryType.ADJUST, PointLedger.EntryType.EARN);
+        assertThat(events).extracting(LedgerEventMessage::entryNo).containsExactly(1L, 2L);
+        assertThat(events.get(0).position()).isLessThan(events.get(1).position());
+        assertThat(events.get(1).ledgerEntryId()).isEqualTo(earned.getId());
+        assertThat(events.get(1).purchaseNumber()).isEqualTo("FEED-" + suffix);
+        assertThat(events.get(1).balanceAfter()).isEqualTo(40 + earned.getPoints());
+
+        assertThat(ledgerEventService.feed(relayed.lastPosition(), 10).events()).isEmpty();
+    }
+
+    @Test
+    void eventsCommittedAfterARelayRunArePublishedLaterInEntryOrder() {
+        LoyaltyAccount account = TestAccounts.register(authService, "feed");
+        assertThat(adminManagementService.adjustPoints(account.getId(), 40L, "Welcome bonus")).isEmpty();
+        LedgerEventRelayResult first = ledgerEventService.relay();
+
+        // Entries 2 and 3 commit on other nodes after that run, with ids from older sequence blocks;
+        // the node booking entry 3 has a clock running a minute behind.
+        Instant now = Instant.now();
+        insertEvent(-10 * account.getId() - 1, account, 2, 50, now);
+        insertEvent(-10 * account.getId() - 2, account, 3, 60, now.minusSeconds(60));
+
+        ledgerEventService.relay();
+        ledgerEventService.relay();
+
+        List<LedgerEventMessage> late = ledgerEventService.feed(first.lastPosition(), 500).events().stream()
+                .filter(event -> event.accountId().equals(account.getId()))
+                .toList();
+        assertThat(late).extracting(LedgerEventMessage::entryNo).containsExactly(2L, 3L);
+        assertThat(late).extracting(LedgerEventMessage::balanceAfter).containsExactly(50L, 60L);
+        assertThat(late.get(0).position()).isGreaterThan(first.lastPosition());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void feedIsNotAvailableToCustomers() throws Exception {
+        mockMvc.perform(get("/api/events")).andExpect(status().isForbidden());
+    }
+
+    private void insertEvent(long id, LoyaltyAccount account, long entryNo, long balanceAfter, Instant recordedAt) {
+        jdbcTemplate.update("insert into ledger_event (id, ledger_entry_id, loyalty_account_id, entry_no, event_type, "
+                        + "points, balance_after, occurred_at, recorded_at) values (?, ?, ?, ?, 'ADJUST', 10, ?, ?, ?)",
+                id, id, account.getId(), entryNo, balanceAfter, Timestamp.from(recordedAt), Timestamp.from(recordedAt));
+    }
+}
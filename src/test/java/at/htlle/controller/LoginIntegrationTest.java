@@ -0,0 +1,67 @@
+package at.htlle.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import at.htlle.TestAccounts;
+import at.htlle.entity.Customer;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.CustomerRepository;
+import at.htlle.service.AdminManagementService;
+import at.htlle.service.AuthService;
+import at.htlle.service.CustomerUserCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AdminManagementService adminManagementService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerUserCache customerUserCache;
+
+    @Test
+    void legacyHashIsUpgradedAndCachedUserIsEvictedOnStatusChange() throws Exception {
+        String username = "legacy-" + TestAccounts.uniqueSuffix();
+        LoyaltyAccount account = TestAccounts.registerAs(authService, username);
+        Customer customer = customerRepository.findById(account.getCustomer().getId()).orElseThrow();
+        customer.setPassword(new BCryptPasswordEncoder(4).encode(TestAccounts.PASSWORD));
+        customerRepository.save(customer);
+
+        mockMvc.perform(formLogin().user(username).password(TestAccounts.PASSWORD))
+                .andExpect(authenticated().withUsername(username));
+        assertThat(customerRepository.findByUsername(username).orElseThrow().getPassword()).startsWith("{bcrypt}");
+
+        mockMvc.perform(formLogin().user(username).password(TestAccounts.PASSWORD))
+                .andExpect(authenticated());
+        long hits = customerUserCache.cacheStats().hits();
+        mockMvc.perform(formLogin().user(username).password(TestAccounts.PASSWORD))
+                .andExpect(authenticated());
+        assertThat(customerUserCache.cacheStats().hits()).isGreaterThan(hits);
+
+        assertThat(adminManagementService.updateCustomerStatus(customer.getId(), Customer.Status.SUSPENDED)).isEmpty();
+        mockMvc.perform(formLogin().user(username).password(TestAccounts.PASSWORD))
+                .andExpect(unauthenticated());
+    }
+}
@@ -0,0 +1,167 @@
+package at.htlle.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.PurchaseIntakeStatus;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.service.AuthService;
+import at.htlle.service.IdempotencyService;
+import at.htlle.service.LoyaltyService;
+import at.htlle.service.PurchaseIntakeService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PurchaseIntakeIntegrationTest {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void intakeProperties(DynamicPropertyRegistry registry) {
+        registry.add("bonus.purchase-intake.enabled", () -> "true");
+        registry.add("bonus.purchase-intake.journal-dir", () -> journalDir.toString());
+        registry.add("bonus.purchase-intake.poll-interval", () -> "PT1H");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PurchaseIntakeService purchaseIntakeService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void acceptedPurchasesArePostedByTheDrain() throws Exception {
+        LoyaltyAccount account = TestAccounts.register(authService, "async");
+        String purchaseNumber = "ASYNC-" + TestAccounts.uniqueSuffix();
+        String body = """
+                {"accountId": %d, "restaurantId": %d, "purchaseNumber": "%s",
+                 "totalAmount": 10.00, "currency": "EUR"}
+                """.formatted(account.getId(), account.getRestaurant().getId(), purchaseNumber);
+
+        String accepted = mockMvc.perform(post("/api/purchases").with(csrf())
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/purchases/accepted/")))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getContentAsString();
+        String trackingId = objectMapper.readTree(accepted).get("trackingId").asText();
+
+        String duplicate = mockMvc.perform(post("/api/purchases").with(csrf())
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String duplicateId = objectMapper.readTree(duplicate).get("trackingId").asText();
+
+        assertThat(purchaseIntakeService.drain()).isEqualTo(2);
+
+        String posted = mockMvc.perform(get("/api/purchases/accepted/" + trackingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("POSTED"))
+                .andExpect(jsonPath("$.purchase.purchaseNumber").value(purchaseNumber))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode purchase = objectMapper.readTree(posted).get("purchase");
+        assertThat(purchase.get("accountId").asLong()).isEqualTo(account.getId());
+
+        mockMvc.perform(get("/api/purchases/accepted/" + duplicateId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+        mockMvc.perform(get("/api/purchases/accepted/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void asyncPurchaseWithIdempotencyKeyIsAcceptedOnce() throws Exception {
+        LoyaltyAccount account = TestAccounts.register(authService, "async");
+        String body = """
+                {"accountId": %d, "restaurantId": %d, "purchaseNumber": "%s",
+                 "totalAmount": 10.00, "currency": "EUR"}
+                """.formatted(account.getId(), account.getRestaurant().getId(), "ASYNC-" + TestAccounts.uniqueSuffix());
+        String key = UUID.randomUUID().toString();
+
+        String accepted = mockMvc.perform(post("/api/purchases").with(csrf())
+                        .header("Prefer", "respond-async")
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String trackingId = objectMapper.readTree(accepted).get("trackingId").asText();
+
+        mockMvc.perform(post("/api/purchases").with(csrf())
+                        .header("Prefer", "respond-async")
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.trackingId").value(trackingId));
+
+        assertThat(purchaseIntakeService.drain()).isEqualTo(1);
+        assertThat(purchaseIntakeService.status(trackingId).status()).isEqualTo(PurchaseIntakeStatus.Status.POSTED);
+    }
+
+    @Test
+    void purchaseBookedBeforeTheDrainIsRecognisedAndNotBookedTwice() {
+        LoyaltyAccount account = TestAccounts.register(authService, "async");
+        PurchaseRequest request = new PurchaseRequest(account.getId(), account.getRestaurant().getId(),
+                "ASYNC-" + TestAccounts.uniqueSuffix(), new BigDecimal("10.00"), "EUR", null, null, null, null);
+        PurchaseIntakeStatus accepted = purchaseIntakeService.accept(request);
+        // The poster booked it, then the process died before the outcome was recorded.
+        PointLedger booked = loyaltyService.recordPurchase(request);
+
+        assertThat(purchaseIntakeService.drain()).isEqualTo(1);
+
+        PurchaseIntakeStatus status = purchaseIntakeService.status(accepted.trackingId());
+        assertThat(status.status()).isEqualTo(PurchaseIntakeStatus.Status.POSTED);
+        assertThat(status.purchase().purchaseId()).isEqualTo(booked.getPurchase().getId());
+        assertThat(status.purchase().ledgerEntryId()).isEqualTo(booked.getId());
+        assertThat(loyaltyAccountRepository.findById(account.getId()).orElseThrow().getCurrentPoints())
+                .isEqualTo(booked.getBalanceAfter());
+    }
+}
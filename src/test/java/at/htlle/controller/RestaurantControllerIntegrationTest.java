@@ -0,0 +1,73 @@
+package at.htlle.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import at.htlle.entity.Restaurant;
+import at.htlle.entity.Reward;
+import at.htlle.repository.RestaurantRepository;
+import at.htlle.repository.RewardRepository;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RestaurantControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RewardRepository rewardRepository;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void rewardCatalogIsRevalidatedByEtagAndRefreshedAfterChanges() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Catalog " + suffix);
+        restaurant.setCode("CAT-" + suffix);
+        restaurant.setActive(false);
+        restaurant = restaurantRepository.save(restaurant);
+        String path = "/api/restaurants/" + restaurant.getId() + "/rewards";
+
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Reward reward = new Reward();
+        reward.setRestaurant(restaurant);
+        reward.setRewardCode("RW-" + suffix);
+        reward.setName("Catalog reward " + suffix);
+        reward.setCostPoints(10);
+        rewardRepository.save(reward);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Catalog reward " + suffix)));
+
+        mockMvc.perform(get("/api/restaurants/" + Long.MAX_VALUE + "/rewards"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,55 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import at.htlle.TestAccounts;
+import at.htlle.entity.Customer;
+import at.htlle.entity.LoyaltyAccount;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountIdCacheIntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AdminManagementService adminManagementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void accountIdShouldBeResolvedOnceAndDroppedWhenTheCustomerChanges() {
+        String username = "login-" + TestAccounts.uniqueSuffix();
+        LoyaltyAccount account = TestAccounts.registerAs(authService, username);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertThat(authService.resolveAccountId(username)).contains(account.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(authService.resolveAccountId(" " + username + " ")).contains(account.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        Long customerId = account.getCustomer().getId();
+        assertThat(adminManagementService.updateCustomerRole(customerId, Customer.Role.USER)).isEmpty();
+        statistics.clear();
+        assertThat(authService.resolveAccountId(username)).contains(account.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(adminManagementService.deleteCustomer(customerId)).isEmpty();
+        assertThatThrownBy(() -> authService.resolveAccountId(username))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import at.htlle.dto.AccountResponse;
+import at.htlle.dto.LedgerEntryResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RestaurantRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountQueryServiceIntegrationTest {
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Test
+    void ledgerCursorShouldWalkAllEntriesWithoutGapsOrDuplicates() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        for (int i = 0; i < 7; i++) {
+            loyaltyService.recordPurchase(new PurchaseRequest(
+                    account.getId(),
+                    restaurantId,
+                    "PUR-" + UUID.randomUUID(),
+                    new BigDecimal("10.00"),
+                    "EUR",
+                    Instant.parse("2025-03-01T12:00:00Z"),
+                    null,
+                    "Ledger page test",
+                    null));
+        }
+        List<LedgerEntryResponse> full = accountQueryService
+                .getAccountResponse(account.getId(), true, null, AccountQueryService.MAX_LEDGER_PAGE_SIZE)
+                .ledgerEntries();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            AccountResponse page = accountQueryService.getAccountResponse(account.getId(), true, cursor, 3);
+            assertThat(page.ledgerEntries()).hasSizeLessThanOrEqualTo(3);
+            page.ledgerEntries().forEach(entry -> walked.add(entry.id()));
+            cursor = page.nextLedgerCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyElementsOf(full.stream().map(LedgerEntryResponse::id).toList());
+    }
+
+    @Test
+    void overloadWithoutPageSizeShouldReturnWholeLedger() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = account.getRestaurant().getId();
+        for (int i = 0; i < AccountQueryService.DEFAULT_LEDGER_PAGE_SIZE + 5; i++) {
+            loyaltyService.recordPurchase(new PurchaseRequest(
+                    account.getId(),
+                    restaurantId,
+                    "PUR-" + UUID.randomUUID(),
+                    new BigDecimal("10.00"),
+                    "EUR",
+                    Instant.parse("2025-03-01T12:00:00Z"),
+                    null,
+                    "Full ledger test",
+                    null));
+        }
+
+        AccountResponse response = accountQueryService.getAccountResponse(account.getId(), true);
+
+        assertThat(response.ledgerEntries()).hasSizeGreaterThan(AccountQueryService.DEFAULT_LEDGER_PAGE_SIZE + 4);
+        assertThat(response.nextLedgerCursor()).isNull();
+        assertThat(response.ledgerEntries().stream().mapToLong(LedgerEntryResponse::points).sum())
+                .isEqualTo(response.currentPoints());
+    }
+
+    @Test
+    void malformedLedgerCursorShouldBeRejected() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+
+        assertThatThrownBy(() -> accountQueryService.getAccountResponse(account.getId(), true, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid ledger cursor");
+    }
+}
@@ -0,0 +1,67 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.AccountResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountSummaryCacheIntegrationTest {
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private AccountSummaryCache accountSummaryCache;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void hotReadsShouldBeServedFromCacheUntilTheBalanceChanges() {
+        LoyaltyAccount account = TestAccounts.register(authService, "cache");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        AccountResponse first = accountQueryService.getAccountResponse(account.getId(), false);
+        long hitsBefore = accountSummaryCache.cacheStats().hits();
+        statistics.clear();
+        AccountResponse second = accountQueryService.getAccountResponse(account.getId(), false);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(accountSummaryCache.cacheStats().hits()).isEqualTo(hitsBefore + 1);
+
+        long earned = loyaltyService.recordPurchase(new PurchaseRequest(
+                account.getId(),
+                account.getRestaurant().getId(),
+                "PUR-" + UUID.randomUUID(),
+                new BigDecimal("30.00"),
+                "EUR",
+                Instant.now(),
+                null,
+                "Cache test",
+                null)).getPoints();
+
+        assertThat(accountQueryService.getAccountResponse(account.getId(), false).currentPoints())
+                .isEqualTo(first.currentPoints() + earned);
+    }
+}
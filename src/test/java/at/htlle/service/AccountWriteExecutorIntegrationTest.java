@@ -0,0 +1,107 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.Customer;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.CustomerRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "bonus.account-lock.mode=optimistic",
+        "bonus.account-lock.max-attempts=50"
+})
+@ActiveProfiles("test")
+class AccountWriteExecutorIntegrationTest {
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private AccountWriteExecutor accountWriteExecutor;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void concurrentPurchasesShouldAllBeBookedInOptimisticMode() throws Exception {
+        assertThat(accountWriteExecutor.lockMode()).isEqualTo(AccountWriteExecutor.LockMode.OPTIMISTIC);
+        LoyaltyAccount before = createAccount();
+        Long restaurantId = before.getRestaurant().getId();
+
+        int writers = 6;
+        int purchasesPerWriter = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < writers; writer++) {
+                Callable<Long> task = () -> {
+                    long points = 0;
+                    for (int i = 0; i < purchasesPerWriter; i++) {
+                        PointLedger ledger = loyaltyService.recordPurchase(new PurchaseRequest(
+                                before.getId(),
+                                restaurantId,
+                                "PUR-" + UUID.randomUUID(),
+                                new BigDecimal("10.00"),
+                                "EUR",
+                                Instant.now(),
+                                null,
+                                "Concurrent purchase",
+                                null));
+                        points += ledger.getPoints();
+                    }
+                    return points;
+                };
+                results.add(executor.submit(task));
+            }
+            long booked = 0;
+            for (Future<Long> result : results) {
+                booked += result.get();
+            }
+
+            LoyaltyAccount after = loyaltyAccountRepository.findById(before.getId()).orElseThrow();
+            assertThat(after.getCurrentPoints()).isEqualTo(before.getCurrentPoints() + booked);
+            assertThat(after.getVersion()).isEqualTo(before.getVersion() + writers * purchasesPerWriter);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoyaltyAccount createAccount() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        LoyaltyAccount template = loyaltyAccountRepository.findByAccountNumber("ACCT-0001").orElseThrow();
+
+        Customer customer = new Customer();
+        customer.setExternalId("CUST-" + suffix);
+        customer.setFirstName("Concurrent");
+        customer.setLastName("Writer");
+        customer.setEmail(suffix + "@example.com");
+        customer.setUsername("writer-" + suffix);
+        customer.setPassword("unused");
+        customerRepository.save(customer);
+
+        LoyaltyAccount account = new LoyaltyAccount();
+        account.setAccountNumber("ACCT-" + suffix);
+        account.setCustomer(customer);
+        account.setRestaurant(template.getRestaurant());
+        return loyaltyAccountRepository.save(account);
+    }
+}
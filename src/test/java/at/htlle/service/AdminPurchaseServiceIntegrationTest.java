@@ -0,0 +1,87 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.dto.AdminPurchasePage;
+import at.htlle.dto.AdminPurchaseSummary;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RestaurantRepository;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminPurchaseServiceIntegrationTest {
+
+    private static final Instant PURCHASED_AT = Instant.parse("2025-06-15T12:00:00Z");
+
+    @Autowired
+    private AdminPurchaseService adminPurchaseService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Test
+    void cursorPagesAndExportShouldCoverTheFilteredRange() throws Exception {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        List<String> purchaseNumbers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String purchaseNumber = "PUR-" + UUID.randomUUID();
+            purchaseNumbers.add(purchaseNumber);
+            loyaltyService.recordPurchase(new PurchaseRequest(
+                    account.getId(),
+                    restaurantId,
+                    purchaseNumber,
+                    new BigDecimal("9.90"),
+                    "EUR",
+                    PURCHASED_AT.plusSeconds(i % 2),
+                    null,
+                    "Admin purchase page test",
+                    null));
+        }
+        LocalDate day = LocalDate.ofInstant(PURCHASED_AT, ZoneId.systemDefault());
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            AdminPurchasePage page = adminPurchaseService.findPage(restaurantId, day, day, cursor, 2);
+            page.purchases().stream().map(AdminPurchaseSummary::purchaseNumber).forEach(walked::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        StringWriter csv = new StringWriter();
+        long exported = adminPurchaseService.exportCsv(restaurantId, day, day, csv);
+
+        assertThat(walked).containsExactlyInAnyOrderElementsOf(purchaseNumbers);
+        assertThat(exported).isEqualTo(5);
+        assertThat(csv.toString().lines())
+                .hasSize(6)
+                .first()
+                .isEqualTo("purchase_id,purchased_at,purchase_number,customer,restaurant,total_amount,currency");
+        assertThat(csv.toString()).contains(purchaseNumbers.get(0) + ",", ",9.90,EUR");
+    }
+}
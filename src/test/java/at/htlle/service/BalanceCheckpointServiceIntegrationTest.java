@@ -0,0 +1,96 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.CheckpointRunResult;
+import at.htlle.entity.BalanceCheckpoint;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.BalanceCheckpointRepository;
+import at.htlle.repository.PointLedgerRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceCheckpointServiceIntegrationTest {
+
+    @Autowired
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PointLedgerRepository pointLedgerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void synchronizeBalanceAddsOnlyEntriesAfterTheCheckpoint() {
+        LoyaltyAccount account = TestAccounts.register(authService, "checkpoint");
+        earn(account, 100, 100);
+        PointLedger last = earn(account, 200, 300);
+
+        CheckpointRunResult run = balanceCheckpointService.runNow();
+
+        assertThat(run.accountsCheckpointed()).isGreaterThanOrEqualTo(1);
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(account.getId()).orElseThrow();
+        assertThat(checkpoint.getBalance()).isEqualTo(300);
+        assertThat(checkpoint.getLastEntryNo()).isEqualTo(last.getEntryNo());
+        assertThat(balanceCheckpointService.checkpoint(account.getId())).isFalse();
+
+        earn(account, 50, 350);
+        LoyaltyAccount synced = loyaltyService.synchronizeBalance(account.getId());
+
+        assertThat(synced.getCurrentPoints()).isEqualTo(350);
+        assertThat(balanceCheckpointService.runNow().accountsCheckpointed()).isGreaterThanOrEqualTo(1);
+        assertThat(balanceCheckpointRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(350);
+        assertThat(loyaltyService.synchronizeBalance(account.getId()).getCurrentPoints()).isEqualTo(350);
+    }
+
+    @Test
+    void entryWithALowerIdCommittedAfterTheCheckpointIsStillCounted() {
+        LoyaltyAccount account = TestAccounts.register(authService, "checkpoint");
+        earn(account, 100, 100);
+        assertThat(balanceCheckpointService.checkpoint(account.getId())).isTrue();
+        pointLedgerRepository.flush();
+
+        // Another node books from an older id block after the checkpoint was taken.
+        long lowerId = -account.getId();
+        jdbcTemplate.update("insert into point_ledger (id, loyalty_account_id, entry_no, entry_type, points, "
+                        + "balance_after, occurred_at, recorded_at, description) values (?, ?, ?, 'EARN', 40, 140, ?, ?, ?)",
+                lowerId, account.getId(), account.nextLedgerEntryNo(), Timestamp.from(Instant.now()),
+                Timestamp.from(Instant.now()), "Other node");
+
+        assertThat(loyaltyService.synchronizeBalance(account.getId()).getCurrentPoints()).isEqualTo(140);
+        assertThat(balanceCheckpointService.checkpoint(account.getId())).isTrue();
+        assertThat(balanceCheckpointRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(140);
+    }
+
+    private PointLedger earn(LoyaltyAccount account, long points, long balanceAfter) {
+        PointLedger entry = new PointLedger();
+        entry.setLoyaltyAccount(account);
+        entry.setEntryType(PointLedger.EntryType.EARN);
+        entry.setPoints(points);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setOccurredAt(Instant.now());
+        entry.setDescription("Checkpoint test");
+        return pointLedgerRepository.save(entry);
+    }
+}
@@ -0,0 +1,239 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.IdempotencyRecord;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.IdempotencyRecordRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RestaurantRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private AccountWriteExecutor accountWriteExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void repeatedKeyShouldReplayFirstResponseWithoutPostingAgain() {
+        PurchaseRequest request = purchase("PUR-" + UUID.randomUUID());
+        String key = UUID.randomUUID().toString();
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<Long> first = idempotencyService.execute("purchase", key, request, Long.class, () -> {
+            executions.incrementAndGet();
+            Long ledgerId = loyaltyService.recordPurchase(request).getId();
+            return ResponseEntity.status(HttpStatus.CREATED).body(ledgerId);
+        });
+        ResponseEntity<Long> replay = idempotencyService.execute("purchase", key, request, Long.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(-1L);
+        });
+
+        assertThat(executions).hasValue(1);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getBody()).isEqualTo(first.getBody());
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void replayOnTheSameNodeShouldBeServedFromTheCache() {
+        String key = UUID.randomUUID().toString();
+        PurchaseRequest request = purchase("PUR-" + key);
+        idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("stored"));
+        // Without the row only the cache can answer.
+        idempotencyRecordRepository.delete(
+                idempotencyRecordRepository.findByScopeAndIdempotencyKey("purchase", key).orElseThrow());
+
+        AtomicInteger executions = new AtomicInteger();
+        ResponseEntity<String> replay = idempotencyService.execute("purchase", key, request, String.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("executed again");
+        });
+
+        assertThat(executions).hasValue(0);
+        assertThat(replay.getBody()).isEqualTo("stored");
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThatThrownBy(() -> idempotencyService.execute("purchase", key, purchase("PUR-other"), String.class,
+                () -> ResponseEntity.ok("other")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void failedFollowUpShouldDiscardTheStoredResponse() {
+        String key = UUID.randomUUID().toString();
+        PurchaseRequest request = purchase("PUR-" + key);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.accepted().body("first-" + executions.incrementAndGet()),
+                body -> {
+                    throw new IllegalStateException("journal unavailable");
+                }))
+                .hasMessage("journal unavailable");
+        assertThat(idempotencyRecordRepository.findByScopeAndIdempotencyKey("purchase", key)).isEmpty();
+
+        List<String> completed = new ArrayList<>();
+        ResponseEntity<String> retry = idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.accepted().body("first-" + executions.incrementAndGet()), completed::add);
+
+        assertThat(retry.getBody()).isEqualTo("first-2");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isNull();
+        assertThat(completed).containsExactly("first-2");
+        ResponseEntity<String> replay = idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.ok("executed again"), completed::add);
+        assertThat(replay.getBody()).isEqualTo("first-2");
+        assertThat(completed).containsExactly("first-2");
+    }
+
+    @Test
+    void reusedKeyWithDifferentRequestShouldBeRejected() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute("purchase", key, purchase("PUR-A"), String.class,
+                () -> ResponseEntity.ok("first"));
+
+        assertThatThrownBy(() -> idempotencyService.execute("purchase", key, purchase("PUR-B"), String.class,
+                () -> ResponseEntity.ok("second")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void replayShouldComeFromPersistedRecordOnAnotherInstance() {
+        String key = UUID.randomUUID().toString();
+        PurchaseRequest request = purchase("PUR-" + key);
+        idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("stored"));
+
+        IdempotencyRecord record = idempotencyRecordRepository.findByScopeAndIdempotencyKey("purchase", key)
+                .orElseThrow();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED);
+        assertThat(record.getResponseStatus()).isEqualTo(201);
+
+        // A second node shares only the database with the first one.
+        IdempotencyService otherNode = new IdempotencyService(idempotencyRecordRepository, accountWriteExecutor,
+                transactionManager, objectMapper, Duration.ofHours(24), Duration.ofMinutes(1), Duration.ofMinutes(10),
+                100);
+        AtomicInteger executions = new AtomicInteger();
+        ResponseEntity<String> replay = otherNode.execute("purchase", key, request, String.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("executed again");
+        });
+
+        assertThat(executions).hasValue(0);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getBody()).isEqualTo("stored");
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void failedRequestShouldReleaseItsReservation() {
+        String key = UUID.randomUUID().toString();
+        PurchaseRequest request = purchase("PUR-" + key);
+
+        assertThatThrownBy(() -> idempotencyService.execute("purchase", key, request, String.class, () -> {
+            throw new IllegalArgumentException("Restaurant not found");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(idempotencyRecordRepository.findByScopeAndIdempotencyKey("purchase", key)).isEmpty();
+
+        ResponseEntity<String> retry = idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.ok("second attempt"));
+        assertThat(retry.getBody()).isEqualTo("second attempt");
+    }
+
+    @Test
+    void reservationHeldElsewhereShouldRejectUntilItTimesOut() throws Exception {
+        String key = UUID.randomUUID().toString();
+        PurchaseRequest request = purchase("PUR-" + key);
+        IdempotencyRecord reservation = reservation(key, request, Instant.now());
+
+        assertThatThrownBy(() -> idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.ok("concurrent")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already in progress");
+
+        idempotencyRecordRepository.delete(reservation);
+        reservation(key, request, Instant.now().minus(Duration.ofMinutes(5)));
+        ResponseEntity<String> takenOver = idempotencyService.execute("purchase", key, request, String.class,
+                () -> ResponseEntity.ok("taken over"));
+
+        assertThat(takenOver.getBody()).isEqualTo("taken over");
+        assertThat(idempotencyRecordRepository.findByScopeAndIdempotencyKey("purchase", key).orElseThrow()
+                .getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED);
+    }
+
+    private IdempotencyRecord reservation(String key, PurchaseRequest request, Instant createdAt) throws Exception {
+        String requestHash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScope("purchase");
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        record.setCreatedAt(createdAt.truncatedTo(ChronoUnit.MILLIS));
+        return idempotencyRecordRepository.save(record);
+    }
+
+    private PurchaseRequest purchase(String purchaseNumber) {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        return new PurchaseRequest(
+                account.getId(),
+                restaurantId,
+                purchaseNumber,
+                new BigDecimal("15.00"),
+                "EUR",
+                Instant.parse("2025-03-01T12:00:00Z"),
+                null,
+                "Idempotency test",
+                null);
+    }
+}
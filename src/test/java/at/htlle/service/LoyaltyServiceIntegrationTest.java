@@ -2,6 +2,7 @@ package at.htlle.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import at.htlle.dto.AdminRedemptionSummary;
 import at.htlle.dto.PurchaseRequest;
 import at.htlle.dto.RedemptionRequest;
 import at.htlle.entity.LoyaltyAccount;
@@ -12,14 +13,21 @@ import at.htlle.entity.Reward;
 import at.htlle.repository.LoyaltyAccountRepository;
 import at.htlle.repository.PointRuleRepository;
 import at.htlle.repository.PurchaseRepository;
+import at.htlle.repository.RedemptionRepository;
 import at.htlle.repository.RestaurantRepository;
 import at.htlle.repository.RewardRepository;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,6 +54,15 @@ class LoyaltyServiceIntegrationTest {
     @Autowired
     private PurchaseRepository purchaseRepository;
 
+    @Autowired
+    private PointRuleCache pointRuleCache;
+
+    @Autowired
+    private RedemptionRepository redemptionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void earnAndRedeemFlowShouldUpdateBalances() {
         LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
@@ -132,4 +149,74 @@ class LoyaltyServiceIntegrationTest {
         assertThat(purchaseRepository.findAllByOrderByPurchasedAtDesc())
                 .anyMatch(purchase -> purchaseNumber.equals(purchase.getPurchaseNumber()));
     }
+
+    @Test
+    void redemptionShouldBeVisibleInFilteredAdminReport() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Reward reward = rewardRepository.findAll().stream().findFirst().orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        loyaltyService.recordPurchase(new PurchaseRequest(
+                account.getId(),
+                restaurantId,
+                "PUR-" + UUID.randomUUID(),
+                BigDecimal.valueOf(80),
+                "EUR",
+                Instant.now(),
+                null,
+                "Report test",
+                null));
+        Redemption redemption = loyaltyService.redeemReward(
+                new RedemptionRequest(account.getId(), reward.getId(), restaurantId, "Report test"));
+        Instant from = redemption.getRedeemedAt().minusSeconds(60);
+        Instant to = redemption.getRedeemedAt().plusSeconds(60);
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<AdminRedemptionSummary> completed = redemptionRepository.findAdminSummaries(
+                restaurantId, Redemption.Status.COMPLETED, from, to, PageRequest.of(0, 20));
+        Page<AdminRedemptionSummary> cancelled = redemptionRepository.findAdminSummaries(
+                restaurantId, Redemption.Status.CANCELLED, from, to, PageRequest.of(0, 20));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(completed.getContent())
+                .extracting(AdminRedemptionSummary::redemptionCode)
+                .contains(redemption.getRedemptionCode());
+        assertThat(completed.getContent())
+                .filteredOn(summary -> summary.redemptionCode().equals(redemption.getRedemptionCode()))
+                .singleElement()
+                .satisfies(summary -> {
+                    assertThat(summary.customerLabel()).isEqualTo(account.getCustomer().getEmail());
+                    assertThat(summary.rewardName()).isEqualTo(reward.getName());
+                });
+        assertThat(cancelled.getContent())
+                .extracting(AdminRedemptionSummary::redemptionCode)
+                .doesNotContain(redemption.getRedemptionCode());
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    void pointRuleChangeShouldInvalidateCachedRules() {
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        LocalDate today = LocalDate.now();
+
+        pointRuleCache.findActiveRule(restaurantId, today);
+        long missesBefore = pointRuleCache.cacheStats().misses();
+        pointRuleCache.findActiveRule(restaurantId, today);
+        assertThat(pointRuleCache.cacheStats().misses()).isEqualTo(missesBefore);
+
+        PointRule rule = pointRuleRepository.findByRestaurantId(restaurantId).get(0);
+        rule.setMultiplier(new BigDecimal("3.00"));
+        pointRuleRepository.saveAndFlush(rule);
+
+        pointRuleCache.findActiveRule(restaurantId, today);
+        assertThat(pointRuleCache.cacheStats().misses()).isEqualTo(missesBefore + 1);
+    }
 }
@@ -0,0 +1,82 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.LoyaltyStatsResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.repository.CustomerRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.RestaurantRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoyaltyStatsServiceIntegrationTest {
+
+    @Autowired
+    private LoyaltyStatsService loyaltyStatsService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private AdminManagementService adminManagementService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Test
+    void committedWritesShouldMoveCountersAndMatchReconciledTotals() {
+        loyaltyStatsService.reconcile();
+        LoyaltyStatsResponse before = loyaltyStatsService.snapshot();
+
+        LoyaltyAccount account = TestAccounts.register(authService, "stats");
+        Long restaurantId = account.getRestaurant().getId();
+        PurchaseRequest purchase = new PurchaseRequest(
+                account.getId(),
+                restaurantId,
+                "PUR-" + UUID.randomUUID(),
+                new BigDecimal("42.00"),
+                "EUR",
+                Instant.now(),
+                null,
+                "Stats test",
+                null);
+        long earned = loyaltyService.recordPurchase(purchase).getPoints();
+        adminManagementService.adjustPoints(account.getId(), -2L, "Stats correction");
+        assertThatThrownBy(() -> loyaltyService.recordPurchase(purchase))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        LoyaltyStatsResponse after = loyaltyStatsService.snapshot();
+        assertThat(after.customerCount()).isEqualTo(before.customerCount() + 1);
+        assertThat(after.pointsInCirculation()).isEqualTo(before.pointsInCirculation() + earned - 2);
+        assertThat(after.pointsByRestaurant().get(restaurantId))
+                .isEqualTo(before.pointsByRestaurant().getOrDefault(restaurantId, 0L) + earned - 2);
+
+        loyaltyStatsService.reconcile();
+        LoyaltyStatsResponse reconciled = loyaltyStatsService.snapshot();
+        assertThat(reconciled.customerCount()).isEqualTo(customerRepository.count()).isEqualTo(after.customerCount());
+        assertThat(reconciled.restaurantCount()).isEqualTo(restaurantRepository.count());
+        assertThat(reconciled.pointsInCirculation())
+                .isEqualTo(loyaltyAccountRepository.findAll().stream().mapToLong(LoyaltyAccount::getCurrentPoints).sum())
+                .isEqualTo(after.pointsInCirculation());
+    }
+}
@@ -4,9 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import at.htlle.entity.PointRule;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class PointCalculatorTest {
@@ -56,6 +58,33 @@ class PointCalculatorTest {
         assertThat(pointCalculator.isRuleActive(rule, reference)).isFalse();
     }
 
+    @Test
+    void compiledRuleMatchesDecimalCalculationForRandomInputs() {
+        Random random = new Random(20250301L);
+        for (int i = 0; i < 50_000; i++) {
+            PointRule rule = baseRule(
+                    random.nextInt(10) == 0 ? PointRule.RuleType.FIXED : PointRule.RuleType.MULTIPLIER,
+                    randomDecimal(random, 1_000, random.nextInt(12) == 0 ? 3 : random.nextInt(3)),
+                    random.nextInt(4) == 0 ? BigDecimal.ZERO : randomDecimal(random, 500, random.nextInt(3)),
+                    random.nextInt(500));
+            BigDecimal amount = switch (random.nextInt(20)) {
+                case 0 -> new BigDecimal(new BigInteger(90, random), 2);
+                case 1 -> randomDecimal(random, 100, 2).negate();
+                default -> randomDecimal(random, 100_000, random.nextInt(5));
+            };
+
+            assertThat(pointCalculator.calculatePoints(amount, CompiledPointRule.of(rule)))
+                    .as("amount %s, multiplier %s, threshold %s", amount, rule.getMultiplier(), rule.getAmountThreshold())
+                    .isEqualTo(pointCalculator.calculatePoints(amount, rule));
+        }
+    }
+
+    private BigDecimal randomDecimal(Random random, long maxUnits, int scale) {
+        long unscaled = Math.floorMod(random.nextLong(), maxUnits) * (long) Math.pow(10, scale)
+                + (scale == 0 ? 0 : Math.floorMod(random.nextLong(), (long) Math.pow(10, scale)));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
     private PointRule baseRule(PointRule.RuleType ruleType, BigDecimal multiplier, BigDecimal threshold, int basePoints) {
         PointRule rule = new PointRule();
         rule.setRuleType(ruleType);
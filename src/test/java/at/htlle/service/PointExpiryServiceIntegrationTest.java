@@ -0,0 +1,79 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.ExpiryRunResult;
+import at.htlle.entity.JobCheckpoint;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointLedgerRepository;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PointExpiryServiceIntegrationTest {
+
+    private static final Instant CUTOFF = Instant.parse("2021-01-01T00:00:00Z");
+
+    @Autowired
+    private PointExpiryService pointExpiryService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private PointLedgerRepository pointLedgerRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Test
+    void unspentOldPointsExpireOnceAndTheRunCompletesItsCheckpoint() {
+        LoyaltyAccount account = TestAccounts.register(authService, "expiry");
+        post(account, PointLedger.EntryType.EARN, 100, 100, Instant.parse("2020-03-01T10:00:00Z"));
+        post(account, PointLedger.EntryType.EARN, 40, 140, Instant.parse("2021-06-01T10:00:00Z"));
+        post(account, PointLedger.EntryType.REDEEM, -30, 110, Instant.parse("2021-07-01T10:00:00Z"));
+        account.setCurrentPoints(110L);
+        loyaltyAccountRepository.save(account);
+
+        ExpiryRunResult first = pointExpiryService.expire(CUTOFF);
+        ExpiryRunResult second = pointExpiryService.expire(CUTOFF);
+
+        assertThat(first.pointsExpired()).isGreaterThanOrEqualTo(70);
+        assertThat(second.pointsExpired()).isZero();
+        assertThat(loyaltyAccountRepository.findById(account.getId()).orElseThrow().getCurrentPoints()).isEqualTo(40);
+        List<PointLedger> expiries = pointLedgerRepository.findByLoyaltyAccountIdOrderByOccurredAtAsc(account.getId()).stream()
+                .filter(entry -> entry.getEntryType() == PointLedger.EntryType.EXPIRE)
+                .toList();
+        assertThat(expiries).singleElement().satisfies(entry -> {
+            assertThat(entry.getPoints()).isEqualTo(-70);
+            assertThat(entry.getBalanceAfter()).isEqualTo(40);
+        });
+
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(PointExpiryService.JOB_NAME).orElseThrow();
+        assertThat(checkpoint.isInProgress()).isFalse();
+        assertThat(checkpoint.getCompletedAt()).isNotNull();
+    }
+
+    private void post(LoyaltyAccount account, PointLedger.EntryType type, long points, long balanceAfter, Instant occurredAt) {
+        PointLedger entry = new PointLedger();
+        entry.setLoyaltyAccount(account);
+        entry.setEntryType(type);
+        entry.setPoints(points);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setOccurredAt(occurredAt);
+        entry.setDescription("Expiry test");
+        pointLedgerRepository.save(entry);
+    }
+}
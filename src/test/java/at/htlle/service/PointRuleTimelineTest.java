@@ -0,0 +1,74 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.entity.PointRule;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PointRuleTimelineTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void ruleWithoutStartDateKeepsPrecedenceOverDatedRules() {
+        PointRule fallback = rule(1L, null, null, true);
+        PointRule promotion = rule(2L, ORIGIN.plusDays(10), ORIGIN.plusDays(20), true);
+        PointRuleTimeline timeline = PointRuleTimeline.of(List.of(fallback, promotion));
+
+        assertThat(timeline.activeRuleFor(ORIGIN.plusDays(9)).map(CompiledPointRule::rule)).contains(fallback);
+        assertThat(timeline.activeRuleFor(ORIGIN.plusDays(10)).map(CompiledPointRule::rule)).contains(fallback);
+        assertThat(PointRuleTimeline.of(List.of(promotion)).activeRuleFor(ORIGIN.plusDays(21))).isEmpty();
+        assertThat(timeline.ruleById(2L).map(CompiledPointRule::rule)).contains(promotion);
+    }
+
+    @Test
+    void lookupMatchesQueryAndSortForRandomRules() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<PointRule> rules = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                LocalDate from = random.nextInt(4) == 0 ? null : ORIGIN.plusDays(random.nextInt(60));
+                LocalDate until = random.nextInt(4) == 0 ? null : ORIGIN.plusDays(random.nextInt(60));
+                rules.add(rule((long) random.nextInt(1000) * 10 + i, from, until, random.nextInt(5) != 0));
+            }
+            PointRuleTimeline timeline = PointRuleTimeline.of(rules);
+
+            for (int day = -5; day < 70; day++) {
+                LocalDate date = ORIGIN.plusDays(day);
+                assertThat(timeline.activeRuleFor(date).map(CompiledPointRule::rule))
+                        .as("round %d, %s", round, date)
+                        .isEqualTo(expected(rules, date));
+            }
+        }
+    }
+
+    private Optional<PointRule> expected(List<PointRule> rules, LocalDate date) {
+        return rules.stream()
+                .filter(PointRule::isActive)
+                .filter(rule -> rule.getValidFrom() == null || !rule.getValidFrom().isAfter(date))
+                .filter(rule -> rule.getValidUntil() == null || !rule.getValidUntil().isBefore(date))
+                .sorted(Comparator
+                        .comparing(PointRule::getValidFrom, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .reversed()
+                        .thenComparing(PointRule::getId, Comparator.nullsLast(Comparator.reverseOrder())))
+                .findFirst();
+    }
+
+    private PointRule rule(Long id, LocalDate validFrom, LocalDate validUntil, boolean active) {
+        PointRule rule = new PointRule();
+        ReflectionTestUtils.setField(rule, "id", id);
+        rule.setName("Rule " + id);
+        rule.setValidFrom(validFrom);
+        rule.setValidUntil(validUntil);
+        rule.setActive(active);
+        return rule;
+    }
+}
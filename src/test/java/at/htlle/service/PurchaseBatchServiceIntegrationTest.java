@@ -0,0 +1,194 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.PurchaseBatchItemResult;
+import at.htlle.dto.PurchaseBatchResponse;
+import at.htlle.dto.PurchaseRequest;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointRule;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointRuleRepository;
+import at.htlle.repository.PurchaseRepository;
+import at.htlle.repository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+@ActiveProfiles("test")
+class PurchaseBatchServiceIntegrationTest {
+
+    @Autowired
+    private PurchaseBatchService purchaseBatchService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private PointRuleRepository pointRuleRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    @MockitoSpyBean
+    private LoyaltyStatsService loyaltyStatsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchShouldPostValidEntriesAndReportFailures() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        long balanceBefore = account.getCurrentPoints();
+        PointRule rule = pointRuleRepository.findAll().stream().findFirst().orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+
+        String duplicateNumber = "PUR-" + UUID.randomUUID();
+        List<PurchaseRequest> requests = List.of(
+                purchase(account.getId(), restaurantId, duplicateNumber, "10.00", rule.getId()),
+                purchase(account.getId(), restaurantId, "PUR-" + UUID.randomUUID(), "25.50", null),
+                purchase(account.getId(), restaurantId, duplicateNumber, "5.00", rule.getId()),
+                purchase(account.getId(), -1L, "PUR-" + UUID.randomUUID(), "5.00", null),
+                purchase(account.getId(), restaurantId, "PUR-" + UUID.randomUUID(), "-3.00", null));
+
+        PurchaseBatchResponse response = purchaseBatchService.recordPurchases(requests);
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results())
+                .extracting(PurchaseBatchItemResult::status)
+                .containsExactly(
+                        PurchaseBatchItemResult.Status.CREATED,
+                        PurchaseBatchItemResult.Status.CREATED,
+                        PurchaseBatchItemResult.Status.FAILED,
+                        PurchaseBatchItemResult.Status.FAILED,
+                        PurchaseBatchItemResult.Status.FAILED);
+        assertThat(response.results().get(2).error()).isEqualTo("Duplicate purchase number in batch");
+        assertThat(response.results().get(3).error()).isEqualTo("Restaurant not found");
+        assertThat(response.results().get(4).error()).startsWith("totalAmount:");
+
+        PurchaseBatchItemResult second = response.results().get(1);
+        assertThat(second.purchase().points()).isEqualTo(25);
+        assertThat(second.purchase().balanceAfter()).isEqualTo(balanceBefore + 35);
+
+        LoyaltyAccount updated = loyaltyAccountRepository.findById(account.getId()).orElseThrow();
+        assertThat(updated.getCurrentPoints()).isEqualTo(balanceBefore + 35);
+    }
+
+    @Test
+    void batchShouldRejectPurchaseNumbersThatAlreadyExist() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        String purchaseNumber = "PUR-" + UUID.randomUUID();
+
+        purchaseBatchService.recordPurchases(List.of(
+                purchase(account.getId(), restaurantId, purchaseNumber, "12.00", null)));
+        PurchaseBatchResponse retry = purchaseBatchService.recordPurchases(List.of(
+                purchase(account.getId(), restaurantId, purchaseNumber, "12.00", null)));
+
+        assertThat(retry.created()).isZero();
+        assertThat(retry.results().get(0).error()).isEqualTo("Purchase number already exists");
+    }
+
+    @Test
+    void batchInsertsShouldBeSentAsJdbcBatches() {
+        LoyaltyAccount account = loyaltyAccountRepository.findByAccountNumber("ACCT-0001")
+                .orElseThrow();
+        Long restaurantId = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(restaurant -> restaurant.getId())
+                .orElseThrow();
+        List<PurchaseRequest> requests = IntStream.range(0, 20)
+                .mapToObj(i -> purchase(account.getId(), restaurantId, "PUR-" + UUID.randomUUID(), "10.00", null))
+                .toList();
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        purchaseBatchService.recordPurchases(requests);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(60);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void failingAccountGroupIsRolledBackWithoutAffectingOtherGroups() {
+        String suffix = TestAccounts.uniqueSuffix();
+        LoyaltyAccount healthy = TestAccounts.register(authService, "batch-ok");
+        LoyaltyAccount failing = TestAccounts.register(authService, "batch-fail");
+        Long restaurantId = healthy.getRestaurant().getId();
+        // Fails after the group's purchases and ledger entries were written, so only a rollback removes them.
+        doThrow(new IllegalStateException("Stats store unavailable"))
+                .when(loyaltyStatsService).recordPointsDelta(anyLong(), eq(777L));
+
+        PurchaseBatchResponse response = purchaseBatchService.recordPurchases(List.of(
+                purchase(healthy.getId(), restaurantId, "OK-" + suffix, "12.00", null),
+                purchase(failing.getId(), restaurantId, "FAIL-A-" + suffix, "700.00", null),
+                purchase(failing.getId(), restaurantId, "FAIL-B-" + suffix, "77.00", null)));
+
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.results())
+                .extracting(PurchaseBatchItemResult::status)
+                .containsExactly(
+                        PurchaseBatchItemResult.Status.CREATED,
+                        PurchaseBatchItemResult.Status.FAILED,
+                        PurchaseBatchItemResult.Status.FAILED);
+        assertThat(response.results().get(1).error()).isEqualTo("Stats store unavailable");
+        assertThat(loyaltyAccountRepository.findById(healthy.getId()).orElseThrow().getCurrentPoints()).isEqualTo(12);
+        assertThat(purchaseRepository.findByPurchaseNumber("OK-" + suffix)).isPresent();
+        assertThat(loyaltyAccountRepository.findById(failing.getId()).orElseThrow().getCurrentPoints()).isZero();
+        assertThat(purchaseRepository.findExistingPurchaseNumbers(List.of("FAIL-A-" + suffix, "FAIL-B-" + suffix)))
+                .isEmpty();
+    }
+
+    private PurchaseRequest purchase(Long accountId, Long restaurantId, String purchaseNumber, String amount, Long ruleId) {
+        return new PurchaseRequest(
+                accountId,
+                restaurantId,
+                purchaseNumber,
+                new BigDecimal(amount),
+                "EUR",
+                Instant.parse("2025-03-01T12:00:00Z"),
+                null,
+                "Batch test",
+                ruleId);
+    }
+}
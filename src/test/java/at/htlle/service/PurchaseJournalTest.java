@@ -0,0 +1,121 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PurchaseJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void unpostedEntriesAreReplayedAfterReopening() {
+        PurchaseJournal journal = new PurchaseJournal(directory, 1024, Duration.ofMillis(1));
+        journal.open();
+        for (int i = 0; i < 40; i++) {
+            journal.append(("purchase-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        List<PurchaseJournal.Entry> firstBatch = journal.readDurable(25);
+        assertThat(firstBatch).hasSize(25);
+        journal.markPosted(firstBatch.get(firstBatch.size() - 1));
+        journal.close();
+
+        PurchaseJournal reopened = new PurchaseJournal(directory, 1024, Duration.ofMillis(1));
+        reopened.open();
+        try {
+            List<String> replayed = new ArrayList<>();
+            reopened.replayUnposted(entry -> replayed.add(new String(entry.payload(), StandardCharsets.UTF_8)));
+            assertThat(replayed).hasSize(15).first().isEqualTo("purchase-25");
+            assertThat(reopened.postedSequence()).isEqualTo(firstBatch.get(24).sequence());
+            assertThat(reopened.append("next".getBytes(StandardCharsets.UTF_8))).isEqualTo(41);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void tornTailIsDiscardedOnReopen() throws IOException {
+        PurchaseJournal journal = new PurchaseJournal(directory, 4096, Duration.ofMillis(1));
+        journal.open();
+        int written = 0;
+        for (int i = 0; i < 3; i++) {
+            byte[] payload = ("purchase-" + i).getBytes(StandardCharsets.UTF_8);
+            journal.append(payload);
+            written += 16 + payload.length;
+        }
+        journal.close();
+
+        // A record cut off by a crash: a plausible length and sequence, but a payload that does not match its CRC.
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer garbage = ByteBuffer.allocate(24).putInt(8).putInt(0xCAFE).putLong(4).putLong(-1L).flip();
+            channel.write(garbage, written);
+        }
+
+        PurchaseJournal reopened = new PurchaseJournal(directory, 4096, Duration.ofMillis(1));
+        reopened.open();
+        try {
+            assertThat(payloads(reopened)).containsExactly("purchase-0", "purchase-1", "purchase-2");
+            assertThat(reopened.append("purchase-3".getBytes(StandardCharsets.UTF_8))).isEqualTo(4);
+        } finally {
+            reopened.close();
+        }
+
+        PurchaseJournal again = new PurchaseJournal(directory, 4096, Duration.ofMillis(1));
+        again.open();
+        try {
+            assertThat(payloads(again)).containsExactly("purchase-0", "purchase-1", "purchase-2", "purchase-3");
+        } finally {
+            again.close();
+        }
+    }
+
+    @Test
+    void smallSegmentsRollAndPostedSegmentsAreDeleted() throws IOException {
+        PurchaseJournal journal = new PurchaseJournal(directory, 1024, Duration.ofMillis(1));
+        journal.open();
+        try {
+            for (int i = 0; i < 100; i++) {
+                journal.append(("purchase-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertThat(segmentFiles()).hasSize(3);
+
+            List<PurchaseJournal.Entry> all = journal.readDurable(Integer.MAX_VALUE);
+            assertThat(all).hasSize(100);
+            assertThat(all.get(99).sequence()).isEqualTo(100);
+            journal.markPosted(all.get(all.size() - 1));
+
+            assertThat(segmentFiles()).hasSize(1);
+            assertThat(journal.readDurable(10)).isEmpty();
+            journal.append("purchase-100".getBytes(StandardCharsets.UTF_8));
+            assertThat(payloads(journal)).containsExactly("purchase-100");
+        } finally {
+            journal.close();
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private static List<String> payloads(PurchaseJournal journal) {
+        List<String> payloads = new ArrayList<>();
+        journal.replayUnposted(entry -> payloads.add(new String(entry.payload(), StandardCharsets.UTF_8)));
+        return payloads;
+    }
+}
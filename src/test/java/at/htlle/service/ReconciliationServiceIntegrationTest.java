@@ -0,0 +1,120 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.AccountDrift;
+import at.htlle.dto.ReconciliationReport;
+import at.htlle.entity.BalanceCheckpoint;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.BalanceCheckpointRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointLedgerRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReconciliationServiceIntegrationTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private PointLedgerRepository pointLedgerRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportsBalanceDriftAndBrokenChainsAndRepairsBalances() {
+        LoyaltyAccount drifted = register();
+        book(drifted, 100, 100);
+        book(drifted, 50, 150);
+        LoyaltyAccount broken = register();
+        book(broken, 100, 100);
+        book(broken, 50, 170);
+        broken.setCurrentPoints(150L);
+        loyaltyAccountRepository.save(broken);
+        LoyaltyAccount clean = register();
+        book(clean, 80, 80);
+        clean.setCurrentPoints(80L);
+        loyaltyAccountRepository.save(clean);
+
+        ReconciliationReport report = reconciliationService.reconcile(drifted.getId(), clean.getId(), false);
+
+        assertThat(report.accountsChecked()).isEqualTo(3);
+        assertThat(report.ledgerEntriesChecked()).isEqualTo(5);
+        assertThat(report.accountsWithBalanceDrift()).isEqualTo(1);
+        assertThat(report.accountsWithBrokenChain()).isEqualTo(1);
+        assertThat(report.drifts()).containsExactly(
+                new AccountDrift(drifted.getId(), 0, 150, 0, 2),
+                new AccountDrift(broken.getId(), 150, 150, 1, 2));
+
+        // A stale checkpoint must not leak into the repair, which applies the full-ledger total.
+        BalanceCheckpoint staleCheckpoint = new BalanceCheckpoint(drifted.getId());
+        staleCheckpoint.advance(1L, 999);
+        balanceCheckpointRepository.save(staleCheckpoint);
+
+        ReconciliationReport repaired = reconciliationService.reconcile(drifted.getId(), clean.getId(), true);
+
+        assertThat(repaired.accountsRepaired()).isEqualTo(1);
+        assertThat(loyaltyAccountRepository.findById(drifted.getId()).orElseThrow().getCurrentPoints()).isEqualTo(150);
+        assertThat(balanceCheckpointRepository.findById(drifted.getId()).orElseThrow().getBalance()).isEqualTo(150);
+        assertThat(reconciliationService.reconcile(drifted.getId(), clean.getId(), false).accountsWithBalanceDrift())
+                .isZero();
+        assertThat(reconciliationService.reconcile(drifted.getId(), clean.getId(), true).accountsRepaired()).isZero();
+    }
+
+    @Test
+    void chainFollowsBookingOrderEvenWhenRecordedAtWasCopiedFromBackdatedOccurredAt() {
+        LoyaltyAccount account = register();
+        book(account, 100, 100);
+        book(account, 50, 150, Instant.now().minus(Duration.ofDays(30)));
+        account.setCurrentPoints(150L);
+        loyaltyAccountRepository.save(account);
+        // What V17 did to entries booked before it ran.
+        jdbcTemplate.update("update point_ledger set recorded_at = occurred_at where loyalty_account_id = ?",
+                account.getId());
+
+        ReconciliationReport report = reconciliationService.reconcile(account.getId(), account.getId(), false);
+
+        assertThat(report.ledgerEntriesChecked()).isEqualTo(2);
+        assertThat(report.accountsWithBrokenChain()).isZero();
+        assertThat(report.drifts()).isEmpty();
+    }
+
+    private LoyaltyAccount register() {
+        return TestAccounts.register(authService, "recon");
+    }
+
+    private void book(LoyaltyAccount account, long points, long balanceAfter) {
+        book(account, points, balanceAfter, Instant.now());
+    }
+
+    private void book(LoyaltyAccount account, long points, long balanceAfter, Instant occurredAt) {
+        PointLedger entry = new PointLedger();
+        entry.setLoyaltyAccount(account);
+        entry.setEntryType(PointLedger.EntryType.EARN);
+        entry.setPoints(points);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setOccurredAt(occurredAt);
+        entry.setDescription("Reconciliation test");
+        pointLedgerRepository.save(entry);
+    }
+}
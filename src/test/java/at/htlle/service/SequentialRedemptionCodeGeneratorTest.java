@@ -0,0 +1,153 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import at.htlle.repository.RedemptionRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class SequentialRedemptionCodeGeneratorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(RedemptionRepository.class, () -> mock(RedemptionRepository.class))
+            .withUserConfiguration(SequentialRedemptionCodeGenerator.class, RandomRedemptionCodeGenerator.class);
+
+    private static final Clock FIXED = Clock.fixed(Instant.parse("2025-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void codesStayUniqueWhenSequenceOverflowsWithinOneSecond() {
+        SequentialRedemptionCodeGenerator generator = new SequentialRedemptionCodeGenerator(63, FIXED);
+        Set<String> codes = new HashSet<>();
+        int count = (1 << SequentialRedemptionCodeGenerator.SEQUENCE_BITS) + 10_000;
+
+        for (int i = 0; i < count; i++) {
+            String code = generator.nextCode();
+            assertThat(code).matches("^[A-Z0-9]{12}$");
+            codes.add(code);
+        }
+
+        assertThat(codes).hasSize(count);
+        assertThat(codes).allMatch(SequentialRedemptionCodeGenerator::isValid);
+    }
+
+    @Test
+    void codesStayUniqueAcrossConcurrentCallers() throws Exception {
+        SequentialRedemptionCodeGenerator generator = new SequentialRedemptionCodeGenerator(1, Clock.systemUTC());
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        codes.add(generator.nextCode());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(codes).hasSize(200_000);
+    }
+
+    @Test
+    void checkCharacterDetectsSingleCharacterTypos() {
+        String code = new SequentialRedemptionCodeGenerator(7, FIXED).nextCode();
+
+        for (int position = 0; position < code.length(); position++) {
+            for (char replacement : RedemptionCodeGenerator.ALPHABET.toCharArray()) {
+                if (replacement == code.charAt(position)) {
+                    continue;
+                }
+                String typo = code.substring(0, position) + replacement + code.substring(position + 1);
+                assertThat(SequentialRedemptionCodeGenerator.isValid(typo)).as(typo).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void resumedGeneratorDoesNotRepeatCodesAfterClockStepsBack() {
+        Set<String> issuedBeforeRestart = new HashSet<>();
+        SequentialRedemptionCodeGenerator beforeRestart = new SequentialRedemptionCodeGenerator(5, FIXED);
+        String last = null;
+        for (int i = 0; i < 1_000; i++) {
+            last = beforeRestart.nextCode();
+            issuedBeforeRestart.add(last);
+        }
+
+        Clock setBack = Clock.offset(FIXED, Duration.ofMinutes(-10));
+        SequentialRedemptionCodeGenerator afterRestart = new SequentialRedemptionCodeGenerator(5, setBack);
+        afterRestart.resumeAfter(last);
+
+        for (int i = 0; i < 1_000; i++) {
+            String code = afterRestart.nextCode();
+            assertThat(issuedBeforeRestart).doesNotContain(code);
+            assertThat(code).isGreaterThan(last);
+        }
+    }
+
+    @Test
+    void generatorResumesBehindHighestStoredCodeOfItsNode() {
+        Clock ahead = Clock.offset(Clock.systemUTC(), Duration.ofHours(1));
+        String stored = new SequentialRedemptionCodeGenerator(9, ahead).nextCode();
+        RedemptionRepository redemptionRepository = mock(RedemptionRepository.class);
+        when(redemptionRepository.findHighestRedemptionCode(anyString(), anyString(), eq(12)))
+                .thenReturn(Optional.of(stored));
+
+        String next = new SequentialRedemptionCodeGenerator(9, redemptionRepository).nextCode();
+
+        ArgumentCaptor<String> lowest = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> highest = ArgumentCaptor.forClass(String.class);
+        verify(redemptionRepository).findHighestRedemptionCode(lowest.capture(), highest.capture(), eq(12));
+        assertThat(stored).isBetween(lowest.getValue(), highest.getValue());
+        assertThat(next).isGreaterThan(stored);
+    }
+
+    @Test
+    void nodeIdMustBeConfiguredExplicitly() {
+        assertThatThrownBy(() -> new SequentialRedemptionCodeGenerator(null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bonus.redemption-code.node-id");
+    }
+
+    @Test
+    void nodeIdMustFitIntoSixBits() {
+        assertThatThrownBy(() -> new SequentialRedemptionCodeGenerator(64, FIXED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sequentialGeneratorIsTheDefaultAndRequiresANodeId() {
+        contextRunner.withPropertyValues("bonus.redemption-code.node-id=5")
+                .run(context -> assertThat(context).hasSingleBean(RedemptionCodeGenerator.class)
+                        .hasSingleBean(SequentialRedemptionCodeGenerator.class));
+        contextRunner.run(context -> assertThat(context).hasFailed());
+        contextRunner.withPropertyValues("bonus.redemption-code.generator=random")
+                .run(context -> assertThat(context).hasSingleBean(RedemptionCodeGenerator.class)
+                        .hasSingleBean(RandomRedemptionCodeGenerator.class));
+    }
+}
@@ -0,0 +1,108 @@
+package at.htlle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import at.htlle.TestAccounts;
+import at.htlle.dto.TierRunResult;
+import at.htlle.entity.LoyaltyAccount;
+import at.htlle.entity.PointLedger;
+import at.htlle.repository.JobCheckpointRepository;
+import at.htlle.repository.LoyaltyAccountRepository;
+import at.htlle.repository.PointLedgerRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TierRecalculationServiceIntegrationTest {
+
+    @Autowired
+    private TierRecalculationService tierRecalculationService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LoyaltyAccountRepository loyaltyAccountRepository;
+
+    @Autowired
+    private PointLedgerRepository pointLedgerRepository;
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private TierPolicy tierPolicy;
+
+    @Autowired
+    private AccountSummaryCache accountSummaryCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void tiersFollowRollingEarningsAndIncrementalRunsOnlyTouchChangedAccounts() {
+        LoyaltyAccount account = TestAccounts.register(authService, "tier");
+        earn(account, 400, 400, Instant.parse("2020-01-01T00:00:00Z"));
+        earn(account, 600, 1000, Instant.now());
+        assertThat(accountQueryService.getAccountResponse(account.getId(), false).tier())
+                .isEqualTo(LoyaltyAccount.Tier.STANDARD);
+
+        TierRunResult full = tierRecalculationService.recalculate(true);
+
+        assertThat(full.full()).isTrue();
+        assertThat(accountQueryService.getAccountResponse(account.getId(), false).tier())
+                .isEqualTo(LoyaltyAccount.Tier.SILVER);
+
+        earn(account, 1500, 2500, Instant.now());
+        TierRunResult incremental = tierRecalculationService.recalculate(false);
+
+        assertThat(incremental.full()).isFalse();
+        assertThat(incremental.accountsEvaluated()).isEqualTo(1);
+        assertThat(incremental.tiersChanged()).isEqualTo(1);
+        assertThat(loyaltyAccountRepository.findById(account.getId()).orElseThrow().getTier())
+                .isEqualTo(LoyaltyAccount.Tier.GOLD);
+    }
+
+    @Test
+    void fullRunPagesThroughAllAccountsWithOneTransactionPerPage() {
+        LoyaltyAccount first = TestAccounts.register(authService, "tier-page");
+        LoyaltyAccount second = TestAccounts.register(authService, "tier-page");
+        earn(first, 1200, 1200, Instant.now());
+        earn(second, 2500, 2500, Instant.now());
+        TierRecalculationService onePerPage = new TierRecalculationService(jdbcTemplate, jobCheckpointRepository,
+                tierPolicy, accountSummaryCache, transactionManager, true, 1, Duration.ZERO);
+
+        TierRunResult run = onePerPage.recalculate(true);
+
+        assertThat(run.accountsEvaluated()).isEqualTo(loyaltyAccountRepository.count());
+        assertThat(run.tiersChanged()).isGreaterThanOrEqualTo(2);
+        assertThat(loyaltyAccountRepository.findById(first.getId()).orElseThrow().getTier())
+                .isEqualTo(LoyaltyAccount.Tier.SILVER);
+        assertThat(loyaltyAccountRepository.findById(second.getId()).orElseThrow().getTier())
+                .isEqualTo(LoyaltyAccount.Tier.GOLD);
+    }
+
+    private void earn(LoyaltyAccount account, long points, long balanceAfter, Instant occurredAt) {
+        PointLedger entry = new PointLedger();
+        entry.setLoyaltyAccount(account);
+        entry.setEntryType(PointLedger.EntryType.EARN);
+        entry.setPoints(points);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setOccurredAt(occurredAt);
+        entry.setDescription("Tier test");
+        pointLedgerRepository.save(entry);
+    }
+}